@@ -0,0 +1,51 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import org.apache.commons.io.FileUtils;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.FileSystemResultsWriter;
+import io.qameta.allure.model.TestResult;
+
+/**
+ * Allure lifecycle writing to a temp directory with a running test case, so attachments
+ * made by the code under benchmark behave as they do inside a real test.
+ */
+final class AllureFixture {
+
+    private final Path resultsDir;
+    private final AllureLifecycle lifecycle;
+    private String testUuid;
+
+    AllureFixture() throws IOException {
+        resultsDir = Files.createTempDirectory("jmh-allure");
+        lifecycle = new AllureLifecycle(new FileSystemResultsWriter(resultsDir));
+        Allure.setLifecycle(lifecycle);
+    }
+
+    AllureLifecycle lifecycle() {
+        return lifecycle;
+    }
+
+    void startTest() {
+        testUuid = UUID.randomUUID().toString();
+        lifecycle.scheduleTestCase(new TestResult().setUuid(testUuid).setName("benchmark"));
+        lifecycle.startTestCase(testUuid);
+    }
+
+    // Stop the running test case and drop what it wrote, so iterations do not accumulate files
+    void stopTest() throws IOException {
+        lifecycle.stopTestCase(testUuid);
+        lifecycle.writeTestCase(testUuid);
+        FileUtils.cleanDirectory(resultsDir.toFile());
+    }
+
+    void delete() throws IOException {
+        FileUtils.deleteDirectory(resultsDir.toFile());
+    }
+}
@@ -0,0 +1,104 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import base.AuditLog;
+import base.Utility;
+
+/**
+ * Utility.WriteLog throughput with one and with several concurrent writers, end to end: the queue is
+ * kept small so writers wait for the background writer once it falls behind, and every iteration
+ * ends with AuditLog.flush, so the score is the rate at which lines reach the file.
+ * backpressureWaits counts the writes that found the queue full.
+ * The log is redirected to a temp directory by pointing user.dir at it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditLogBenchmark {
+
+    private static final String LINE = "[Test Start] LoginTest.validLogin - user clicked Login / Sign up tab";
+
+    private Path dir;
+
+    /**
+     * Backpressure waits during the iteration, reported once (by the first thread) so the sum is the total.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        public long backpressureWaits;
+
+        private boolean reporter;
+        private long before;
+
+        @Setup(Level.Iteration)
+        public void start(ThreadParams threads) {
+            reporter = threads.getThreadIndex() == 0;
+            before = AuditLog.getBackpressureWaits();
+        }
+
+        @TearDown(Level.Iteration)
+        public void stop() {
+            if (reporter) {
+                backpressureWaits += AuditLog.getBackpressureWaits() - before;
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createLogDir() throws IOException {
+        dir = Files.createTempDirectory("jmh-auditlog");
+        Files.createDirectories(dir.resolve("Report"));
+        System.setProperty("user.dir", dir.toString());
+        // Before AuditLog loads; small enough that the writer's speed, not the heap, bounds the score
+        System.setProperty("auditLog.queueCapacity", "10000");
+    }
+
+    // At most queueCapacity lines are left to write here, against millions per iteration
+    @TearDown(Level.Iteration)
+    public void flush() {
+        AuditLog.flush(Duration.ofSeconds(60));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteLogDir() throws IOException {
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+
+    @Benchmark
+    public boolean singleWriter(Counters counters) {
+        return Utility.WriteLog(LINE);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean concurrentWriters(Counters counters) {
+        return Utility.WriteLog(LINE);
+    }
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import base.Config;
+import base.Utility;
+
+/**
+ * Config lookups as done by DriverInstance on every test, single and multi-threaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigBenchmark {
+
+    @Benchmark
+    public String fetchConfigPropertyValue() throws IOException {
+        return Utility.fetchConfigPropertyValue("browserName");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String fetchConfigPropertyValueContended() throws IOException {
+        return Utility.fetchConfigPropertyValue("applicationLoginURL");
+    }
+
+    @Benchmark
+    public int typedGetter() {
+        return Config.get().getInt("driverPool.maxSize", 1);
+    }
+
+    // The original implementation: open and parse the properties file from the classpath per call
+    @Benchmark
+    public String classpathReloadPerCall() throws IOException {
+        try (InputStream is = Utility.class.getClassLoader().getResourceAsStream(Utility.envConfig_Property_File_Path)) {
+            Properties property = new Properties();
+            property.load(is);
+            return property.getProperty("browserName");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package benchmarks;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import base.DataGenerators;
+
+/**
+ * Excel test data loading on small, medium and large generated workbooks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataGeneratorsBenchmark {
+
+    private static final String SHEET = "Users";
+
+    @Param({"100", "5000", "50000"})
+    public int rows;
+
+    private Path dir;
+    private String workbook;
+
+    @Setup(Level.Trial)
+    public void createWorkbook() throws IOException {
+        dir = Files.createTempDirectory("jmh-testdata");
+        workbook = dir.resolve("users-" + rows + ".xlsx").toString();
+        try (SXSSFWorkbook wb = new SXSSFWorkbook(1000); OutputStream out = new FileOutputStream(workbook)) {
+            Sheet sheet = wb.createSheet(SHEET);
+            Row header = sheet.createRow(0);
+            String[] columns = {"name", "email", "password", "title", "day", "active"};
+            for (int i = 0; i < columns.length; i++) header.createCell(i).setCellValue(columns[i]);
+            for (int r = 1; r <= rows; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue("User " + r);
+                row.createCell(1).setCellValue("user" + r + "@example.test");
+                row.createCell(2).setCellValue("Secret#" + r);
+                row.createCell(3).setCellValue(r % 2 == 0 ? "Mr" : "Mrs");
+                row.createCell(4).setCellValue(1 + r % 28);
+                row.createCell(5).setCellValue(r % 3 == 0);
+            }
+            wb.write(out);
+            wb.dispose();
+        }
+        System.setProperty("testData.cacheDir", dir.resolve("cache").toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteWorkbook() throws IOException {
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+
+    // Default path: in-JVM cache hit after the first call
+    @Benchmark
+    public Object[][] getTestDataCached() throws IOException {
+        return DataGenerators.getTestData(workbook, SHEET);
+    }
+
+    // Full XSSFWorkbook DOM parse on every call
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-DtestData.cacheEnabled=false")
+    public Object[][] getTestDataUncached() throws IOException {
+        return DataGenerators.getTestData(workbook, SHEET);
+    }
+
+    @Benchmark
+    public void streamTestData(Blackhole blackhole) throws IOException {
+        Iterator<Object[]> it = DataGenerators.streamTestData(workbook, SHEET);
+        while (it.hasNext()) {
+            blackhole.consume(it.next());
+        }
+    }
+}
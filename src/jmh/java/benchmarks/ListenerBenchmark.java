@@ -0,0 +1,106 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testng.IClass;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.internal.ConstructorOrMethod;
+
+import base.TestAllureListener;
+
+/**
+ * Overhead TestAllureListener adds around each passing test, with a stub ITestResult
+ * and console output discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerBenchmark {
+
+    private final TestAllureListener listener = new TestAllureListener();
+    private ITestResult result;
+    private AllureFixture allure;
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void createFixture() throws Exception {
+        Method testMethod = ListenerBenchmark.class.getMethod("passingTest");
+        ITestNGMethod method = stub(ITestNGMethod.class, (name) -> switch (name) {
+            case "getConstructorOrMethod" -> new ConstructorOrMethod(testMethod);
+            case "getMethodName" -> testMethod.getName();
+            default -> null;
+        });
+        IClass testClass = stub(IClass.class, (name) -> name.equals("getRealClass") ? ListenerBenchmark.class : null);
+        result = stub(ITestResult.class, (name) -> switch (name) {
+            case "getMethod" -> method;
+            case "getTestClass" -> testClass;
+            case "getName" -> testMethod.getName();
+            default -> null;
+        });
+
+        allure = new AllureFixture();
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @Setup(Level.Iteration)
+    public void startTest() {
+        allure.startTest();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopTest() throws IOException {
+        allure.stopTest();
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreConsole() throws IOException {
+        System.setOut(console);
+        allure.delete();
+    }
+
+    // Target of the stubbed ITestResult
+    public void passingTest() {
+    }
+
+    @Benchmark
+    public void startAndSucceed() {
+        listener.onTestStart(result);
+        listener.onTestSuccess(result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Function<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, m, args) -> {
+            Object answer = answers.apply(m.getName());
+            if (answer != null) return answer;
+            if (m.getReturnType() == boolean.class) return false;
+            if (m.getReturnType() == int.class) return 0;
+            if (m.getReturnType() == long.class) return 0L;
+            if (m.getName().equals("hashCode")) return System.identityHashCode(proxy);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package benchmarks;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.OutputType;
+
+import base.ScreenshotManager;
+
+/**
+ * Screenshot byte handling and Allure attachment, using a generated 1920x1080 page-like PNG
+ * in place of a browser capture.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScreenshotBenchmark {
+
+    private byte[] png;
+    private String base64Png;
+    private AllureFixture allure;
+
+    @Setup(Level.Trial)
+    public void createFixture() throws IOException {
+        BufferedImage image = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 1920, 1080);
+        g.setColor(new Color(0xFE, 0x98, 0x0F));
+        g.fillRect(0, 0, 1920, 120);
+        g.setColor(Color.DARK_GRAY);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 18));
+        for (int y = 160; y < 1080; y += 28) {
+            g.drawString("Automation Exercise - Signup / Login - row " + y, 60, y);
+        }
+        g.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        png = out.toByteArray();
+        base64Png = Base64.getEncoder().encodeToString(png);
+        allure = new AllureFixture();
+    }
+
+    @Setup(Level.Iteration)
+    public void startTest() {
+        allure.startTest();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopTest() throws IOException {
+        allure.stopTest();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFixture() throws IOException {
+        allure.delete();
+    }
+
+    // What getScreenshotAs(OutputType.BYTES) does with the driver's base64 payload
+    @Benchmark
+    public byte[] decodeBase64Png() {
+        return OutputType.BYTES.convertFromBase64Png(base64Png);
+    }
+
+    // The original path: attachment written on the test thread
+    @Benchmark
+    public void attachSynchronously() {
+        allure.lifecycle().addAttachment("Screenshot", "image/png", "png", new ByteArrayInputStream(png));
+    }
+
+    // Test-thread cost of the background pipeline. The fixture sends the same frame every time, which
+    // content addressing would turn into shared-frame hits, so it is off here to keep encode/scale/write
+    // in the measurement; once the writer queue fills, the test thread waits for them too
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dscreenshot.contentAddressed=false")
+    public void attachAsync() {
+        ScreenshotManager.attachAsync("Screenshot", png);
+    }
+}
@@ -0,0 +1,170 @@
+package base;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.json.Json;
+
+/**
+ * Latency histograms for BaseClass actions and page-object @Step methods,
+ * aggregated per action type, per action + locator and per test.
+ * Recording is a few atomic increments; everything else happens at export time.
+ */
+public class ActionMetrics {
+
+    static {
+        Config.addValidator(config -> config.getBoolean("metrics.enabled", true));
+    }
+
+    private static final boolean ENABLED = Config.get().getBoolean("metrics.enabled", true);
+    private static final String UNKNOWN_TEST = "(outside test)";
+
+    private static final Map<String, LatencyHistogram> byAction = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, LatencyHistogram>> byLocator = new ConcurrentHashMap<>();
+    // Keyed by TestContext invocation id while the invocation runs
+    private static final Map<String, Map<String, LatencyHistogram>> byTest = new ConcurrentHashMap<>();
+    // Finished invocations folded per test name, so memory grows with test methods rather than invocations
+    private static final Map<String, Map<String, LatencyHistogram>> finishedTests = new ConcurrentHashMap<>();
+
+    /**
+     * Records one action that started at {@code startNanos} (from System.nanoTime()).
+     *
+     * @param action  Action type, e.g. click or enterText.
+     * @param locator Target of the action; null for page-level actions.
+     */
+    public static void record(String action, Object locator, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        TestLogBuffer.action(action, locator, elapsed);
+        if (!ENABLED) return;
+
+        byAction.computeIfAbsent(action, k -> new LatencyHistogram()).recordNanos(elapsed);
+        if (locator != null) {
+            byLocator.computeIfAbsent(action, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(locator.toString(), k -> new LatencyHistogram()).recordNanos(elapsed);
+        }
+        String test = TestContext.getInvocationId();
+        byTest.computeIfAbsent(test != null ? test : UNKNOWN_TEST, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(action, k -> new LatencyHistogram()).recordNanos(elapsed);
+    }
+
+    // Allure reports step duration in milliseconds
+    public static void recordStep(String stepName, long durationMillis) {
+        if (!ENABLED) return;
+        String action = "step";
+        long micros = Math.max(0, durationMillis) * 1000;
+
+        byAction.computeIfAbsent(action, k -> new LatencyHistogram()).recordMicros(micros);
+        byLocator.computeIfAbsent(action, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(stepName, k -> new LatencyHistogram()).recordMicros(micros);
+        String test = TestContext.getInvocationId();
+        byTest.computeIfAbsent(test != null ? test : UNKNOWN_TEST, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(action, k -> new LatencyHistogram()).recordMicros(micros);
+    }
+
+    // Per-action summary of one test invocation (TestContext.getInvocationId()), for attaching to its Allure result
+    public static String testSummaryJson(String invocationId) {
+        Map<String, LatencyHistogram> actions = byTest.get(invocationId);
+        Map<String, Object> summary = new TreeMap<>();
+        if (actions != null) {
+            actions.forEach((action, histogram) -> summary.put(action, histogram.summary()));
+        }
+        return new Json().toJson(summary);
+    }
+
+    /**
+     * Folds the histograms of a finished invocation into its test's totals for the suite report.
+     * Called from TestContext.finish(), after the invocation's Allure attachment has been written.
+     */
+    public static void finishTest(String testName, String invocationId) {
+        Map<String, LatencyHistogram> actions = byTest.remove(invocationId);
+        if (actions == null) return;
+        Map<String, LatencyHistogram> totals = finishedTests.computeIfAbsent(testName, k -> new ConcurrentHashMap<>());
+        actions.forEach((action, histogram) -> totals.computeIfAbsent(action, k -> new LatencyHistogram()).merge(histogram));
+    }
+
+    /**
+     * Full report: per action, per action + locator (slowest p95 first) and per test.
+     */
+    public static void writeJson(Path file) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+
+        Map<String, Object> actions = new TreeMap<>();
+        byAction.forEach((action, histogram) -> actions.put(action, histogram.summary()));
+        report.put("actions", actions);
+
+        List<Map<String, Object>> locators = new ArrayList<>();
+        byLocator.forEach((action, targets) -> targets.forEach((locator, histogram) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("action", action);
+            entry.put("locator", locator);
+            entry.putAll(histogram.summary());
+            locators.add(entry);
+        }));
+        locators.sort(Comparator.comparingDouble((Map<String, Object> e) -> (Double) e.get("p95Ms")).reversed());
+        report.put("locators", locators);
+
+        Map<String, Object> tests = new TreeMap<>();
+        finishedTests.forEach((test, perAction) -> {
+            Map<String, Object> summary = new TreeMap<>();
+            perAction.forEach((action, histogram) -> summary.put(action, histogram.summary()));
+            tests.put(test, summary);
+        });
+        byTest.forEach((test, perAction) -> {
+            Map<String, Object> summary = new TreeMap<>();
+            perAction.forEach((action, histogram) -> summary.put(action, histogram.summary()));
+            tests.put(test, summary);
+        });
+        report.put("tests", tests);
+
+        write(file, new Json().toJson(report));
+    }
+
+    /**
+     * Prometheus text exposition: one summary per action and per action + locator.
+     * Per-test series are left to the JSON report to keep label cardinality down.
+     */
+    public static void writePrometheus(Path file) throws IOException {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP ae_action_latency_seconds Latency of BaseClass actions and page-object steps.\n");
+        out.append("# TYPE ae_action_latency_seconds summary\n");
+        new TreeMap<>(byAction).forEach((action, histogram) ->
+                appendSummary(out, "ae_action_latency_seconds", "action=\"" + escape(action) + "\"", histogram));
+
+        out.append("# HELP ae_locator_latency_seconds Latency of actions per locator.\n");
+        out.append("# TYPE ae_locator_latency_seconds summary\n");
+        new TreeMap<>(byLocator).forEach((action, targets) -> new TreeMap<>(targets).forEach((locator, histogram) ->
+                appendSummary(out, "ae_locator_latency_seconds",
+                        "action=\"" + escape(action) + "\",locator=\"" + escape(locator) + "\"", histogram)));
+
+        write(file, out.toString());
+    }
+
+    private static void appendSummary(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        for (double quantile : new double[]{0.5, 0.95, 0.99}) {
+            out.append(String.format(Locale.ROOT, "%s{%s,quantile=\"%s\"} %.6f%n",
+                    name, labels, quantile, histogram.percentileMicros(quantile * 100) / 1_000_000.0));
+        }
+        out.append(String.format(Locale.ROOT, "%s_sum{%s} %.6f%n", name, labels, histogram.getSumMicros() / 1_000_000.0));
+        out.append(String.format(Locale.ROOT, "%s_count{%s} %d%n", name, labels, histogram.getCount()));
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.writeString(file, content);
+    }
+}
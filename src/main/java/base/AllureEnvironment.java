@@ -0,0 +1,110 @@
+package base;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Environment metadata for the Allure report, collected in memory during the run and written once.
+ * Values reported by several threads or browsers for the same key are merged ("chrome, firefox").
+ * environment.xml is merged through LockedFiles with what other forks or suites of the same run
+ * already wrote (see {@link #runId()}); a file left by an earlier run is replaced.
+ */
+public class AllureEnvironment {
+
+    private static final Map<String, Set<String>> parameters = new ConcurrentHashMap<>();
+
+    public static void record(String key, String value) {
+        if (value == null || value.isBlank()) return;
+        parameters.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(value);
+    }
+
+    // allure.results.directory, the same name Allure itself reads, so one -D sets both
+    public static Path resultsDirectory() {
+        return Paths.get(Config.get().getString("allure.results.directory", "allure-results"));
+    }
+
+    public static void write() throws IOException {
+        write(resultsDirectory());
+    }
+
+    public static void write(Path resultsDirectory) throws IOException {
+        if (parameters.isEmpty()) return;
+
+        String run = "<!-- run " + runId() + " -->\n";
+        LockedFiles.update(resultsDirectory.resolve("environment.xml"), current -> {
+            // Only files written by this run are merged; allure-results is not cleaned between runs
+            Map<String, Set<String>> merged = new TreeMap<>(current != null && current.startsWith(run) ? parse(current) : Map.of());
+            parameters.forEach((key, values) -> merged.computeIfAbsent(key, k -> new TreeSet<>()).addAll(values));
+
+            StringBuilder xml = new StringBuilder(run).append("<environment>\n");
+            merged.forEach((key, values) -> xml
+                    .append("    <parameter>\n")
+                    .append("        <key>").append(escape(key)).append("</key>\n")
+                    .append("        <value>").append(escape(String.join(", ", values))).append("</value>\n")
+                    .append("    </parameter>\n"));
+            return xml.append("</environment>\n").toString();
+        });
+    }
+
+    /**
+     * allure.runId when set (give every shard of a CI run the same value), otherwise the surefire process
+     * that launched this fork, so forks of one mvn run merge with each other but not with earlier runs.
+     */
+    static String runId() {
+        String configured = Config.get().getString("allure.runId", "");
+        if (!configured.isEmpty()) return configured;
+        ProcessHandle run = System.getProperty("surefire.forkNumber") != null
+                ? ProcessHandle.current().parent().orElse(ProcessHandle.current())
+                : ProcessHandle.current();
+        return run.pid() + "-" + run.info().startInstant().map(Instant::toEpochMilli).orElse(0L);
+    }
+
+    // Values written as "chrome, firefox" are split again so they merge per value
+    private static Map<String, Set<String>> parse(String content) {
+        Map<String, Set<String>> existing = new HashMap<>();
+        try {
+            NodeList entries = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                    .parse(new InputSource(new StringReader(content))).getElementsByTagName("parameter");
+            for (int i = 0; i < entries.getLength(); i++) {
+                Element entry = (Element) entries.item(i);
+                String key = text(entry, "key");
+                String value = text(entry, "value");
+                if (key.isEmpty() || value.isEmpty()) continue;
+                Set<String> values = existing.computeIfAbsent(key, k -> new TreeSet<>());
+                for (String part : value.split(", ")) {
+                    values.add(part);
+                }
+            }
+        } catch (IOException | SAXException | ParserConfigurationException e) {
+            System.err.println("Ignoring unreadable environment.xml: " + e.getMessage());
+        }
+        return existing;
+    }
+
+    private static String text(Element parent, String tag) {
+        NodeList nodes = parent.getElementsByTagName(tag);
+        return nodes.getLength() == 0 ? "" : nodes.item(0).getTextContent().trim();
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,135 @@
+package base;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Quits browser sessions on virtual threads so @AfterMethod returns immediately.
+ * At most teardown.maxConcurrent quits run at once; a quit still running after teardown.quitTimeout
+ * has its driver process and the browser processes below it killed. The driver process is the
+ * child of this JVM started with --port=<service port>, registered when the session is created.
+ * Suite end (and JVM shutdown) waits for pending quits with awaitPending.
+ */
+public class AsyncTeardown {
+
+    static {
+        Config.addValidator(config -> {
+            config.getBoolean("teardown.async", true);
+            config.getInt("teardown.maxConcurrent", 1);
+            config.getDuration("teardown.quitTimeout", Duration.ZERO);
+            config.getDuration("teardown.awaitTimeout", Duration.ZERO);
+        });
+    }
+
+    private static final ExecutorService QUITTERS =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("driver-quit-", 0).factory());
+    private static final Semaphore permits = new Semaphore(Math.max(1, Config.get().getInt("teardown.maxConcurrent", 4)));
+
+    private static final Map<WebDriver, ProcessHandle> driverProcesses = new ConcurrentHashMap<>();
+    private static final Set<CompletableFuture<Void>> pending = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> awaitPending(Duration.ofSeconds(30)), "driver-quit-shutdown"));
+    }
+
+    public static boolean isEnabled() {
+        return Config.get().getBoolean("teardown.async", true);
+    }
+
+    /**
+     * Remembers the driver process of a locally launched session so the watchdog can kill it.
+     */
+    static void track(WebDriver driver, int servicePort) {
+        String portArg = "--port=" + servicePort;
+        Optional<ProcessHandle> process = ProcessHandle.current().children()
+                .filter(child -> child.info().commandLine().map(line -> line.contains(portArg)).orElse(false))
+                .findFirst();
+        process.ifPresent(handle -> driverProcesses.put(driver, handle));
+    }
+
+    /**
+     * Quits the session in the background, or inline when teardown.async=false.
+     */
+    public static void quit(WebDriver driver) {
+        if (!isEnabled()) {
+            quitWithWatchdog(driver);
+            return;
+        }
+        CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                quitWithWatchdog(driver);
+            } finally {
+                permits.release();
+            }
+        }, QUITTERS);
+        pending.add(future);
+        future.whenComplete((result, error) -> pending.remove(future));
+    }
+
+    /**
+     * Blocks until every scheduled quit has finished or the timeout passes.
+     *
+     * @return false if some quits were still running at the timeout.
+     */
+    public static boolean awaitPending(Duration timeout) {
+        if (pending.isEmpty()) return true;
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            System.err.println(pending.size() + " browser sessions still quitting after " + timeout.toSeconds() + "s");
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return pending.isEmpty();
+        }
+    }
+
+    private static void quitWithWatchdog(WebDriver driver) {
+        ProcessHandle process = driverProcesses.remove(driver);
+        Duration deadline = Config.get().getDuration("teardown.quitTimeout", Duration.ofSeconds(15));
+
+        Thread quitter = Thread.ofVirtual().name("driver-quit-call").start(() -> {
+            try {
+                driver.quit();
+            } catch (WebDriverException e) {
+                System.err.println("Failed to quit session: " + e.getMessage());
+            }
+        });
+        try {
+            if (quitter.join(deadline)) return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (process != null) {
+            System.err.println("quit() hung past " + deadline.toSeconds() + "s; killing driver process " + process.pid());
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+        } else {
+            System.err.println("quit() hung past " + deadline.toSeconds() + "s and the driver process is unknown");
+        }
+    }
+}
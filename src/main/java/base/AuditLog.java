@@ -0,0 +1,253 @@
+package base;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail behind Utility.WriteLog. Test threads only enqueue (lock-free); a single writer thread
+ * formats entries and appends them in batches to a FileChannel, rolling the file by size or age.
+ * Every entry carries the time, thread and current test. A shutdown hook drains the queue before exit.
+ * The queue holds about auditLog.queueCapacity entries; when the writer falls that far behind, test
+ * threads wait for it (parking briefly) instead of growing the heap, so no entry is ever dropped.
+ */
+public class AuditLog {
+
+    static {
+        Config.addValidator(config -> {
+            config.getString("auditLog.file");
+            config.getLong("auditLog.maxSizeMb", 1);
+            config.getDuration("auditLog.rollInterval", Duration.ZERO);
+            config.getDuration("auditLog.flushInterval", Duration.ZERO);
+            config.getBoolean("auditLog.consoleEcho", true);
+            config.getInt("auditLog.queueCapacity", 1);
+        });
+    }
+
+    private record Entry(long millis, String thread, String test, String message) {
+    }
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter ROLL_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+    private static final int BATCH_BYTES = 64 * 1024;
+    private static final long BACKPRESSURE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private static final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger queued = new AtomicInteger();
+    private static final AtomicLong enqueued = new AtomicLong();
+    private static final LongAdder backpressureWaits = new LongAdder();
+    private static final AtomicLong written = new AtomicLong();
+
+    private static final Path file;
+    private static final long maxBytes;
+    private static final long rollIntervalMillis;
+    private static final long flushIntervalNanos;
+    private static final boolean consoleEcho;
+    private static final int capacity;
+
+    private static final Thread writer;
+    private static volatile boolean running = true;
+
+    private static FileChannel channel;
+    private static long openedAtMillis;
+
+    static {
+        Config config = Config.get();
+        file = Paths.get(System.getProperty("user.dir")).resolve(config.getString("auditLog.file", "Report/AuditTrax.log"));
+        maxBytes = config.getLong("auditLog.maxSizeMb", 10) * 1024 * 1024;
+        rollIntervalMillis = config.getDuration("auditLog.rollInterval", Duration.ofDays(1)).toMillis();
+        flushIntervalNanos = config.getDuration("auditLog.flushInterval", Duration.ofMillis(100)).toNanos();
+        consoleEcho = config.getBoolean("auditLog.consoleEcho", true);
+        capacity = Math.max(1, config.getInt("auditLog.queueCapacity", 100_000));
+
+        writer = new Thread(AuditLog::drainLoop, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(AuditLog::shutdown, "audit-log-shutdown"));
+    }
+
+    /**
+     * Queues one entry for the audit file. Never blocks on I/O, but waits for the writer while the queue is full.
+     *
+     * @return false if the writer thread has stopped, so the entry will not reach the file.
+     */
+    public static boolean write(String message) {
+        TestLogBuffer.add(message);
+        if (queued.get() >= capacity) {
+            awaitSpace();
+        }
+        queued.incrementAndGet();
+        queue.offer(new Entry(System.currentTimeMillis(), Thread.currentThread().getName(), TestContext.getTestName(), message));
+        enqueued.incrementAndGet();
+        return writer.isAlive();
+    }
+
+    // Capacity is checked before enqueueing, so concurrent producers can overshoot it by a few entries
+    private static void awaitSpace() {
+        backpressureWaits.increment();
+        while (queued.get() >= capacity && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(BACKPRESSURE_PARK_NANOS);
+        }
+    }
+
+    // Writes that found the queue full and waited for the writer
+    public static long getBackpressureWaits() {
+        return backpressureWaits.sum();
+    }
+
+    // Progress messages from listeners and page objects: audit file, plus console when auditLog.consoleEcho=true
+    public static void info(String message) {
+        write(message);
+        if (consoleEcho) {
+            System.out.println(message);
+        }
+    }
+
+    /**
+     * Waits until everything queued before this call is on disk.
+     *
+     * @return false if the writer did not catch up within the timeout.
+     */
+    public static boolean flush(Duration timeout) {
+        long target = enqueued.get();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (written.get() < target) {
+            if (System.nanoTime() >= deadline || !writer.isAlive()) return false;
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(2));
+        }
+        return true;
+    }
+
+    private static void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void drainLoop() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BATCH_BYTES);
+        StringBuilder line = new StringBuilder(256);
+        while (true) {
+            boolean stopping = !running;
+            try {
+                drain(buffer, line);
+            } catch (IOException e) {
+                System.err.println("Failed to write audit log: " + e.getMessage());
+                closeQuietly();
+            }
+            if (stopping) break;
+            LockSupport.parkNanos(flushIntervalNanos);
+        }
+        closeQuietly();
+    }
+
+    // Formats queued entries into the buffer and writes it whenever it fills, then once at the end
+    private static void drain(ByteBuffer buffer, StringBuilder line) throws IOException {
+        long count = 0;
+        try {
+            Entry entry;
+            while ((entry = queue.poll()) != null) {
+                queued.decrementAndGet();
+                count++;
+                line.setLength(0);
+                TIMESTAMP.formatTo(Instant.ofEpochMilli(entry.millis()), line);
+                line.append(" [").append(entry.thread()).append("] [")
+                        .append(entry.test() != null ? entry.test() : "-").append("] ")
+                        .append(entry.message()).append(System.lineSeparator());
+                append(buffer, line.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            writeBuffer(buffer);
+        } finally {
+            // Entries lost to an I/O error still count, so flush() does not wait for them forever
+            buffer.clear();
+            written.addAndGet(count);
+        }
+    }
+
+    private static void append(ByteBuffer buffer, byte[] bytes) throws IOException {
+        if (bytes.length > buffer.remaining()) {
+            writeBuffer(buffer);
+        }
+        if (bytes.length > buffer.capacity()) {
+            writeBytes(ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+    }
+
+    private static void writeBuffer(ByteBuffer buffer) throws IOException {
+        if (buffer.position() == 0) return;
+        buffer.flip();
+        writeBytes(buffer);
+        buffer.clear();
+    }
+
+    private static void writeBytes(ByteBuffer bytes) throws IOException {
+        FileChannel out = channel();
+        while (bytes.hasRemaining()) {
+            out.write(bytes);
+        }
+    }
+
+    private static FileChannel channel() throws IOException {
+        long now = System.currentTimeMillis();
+        if (channel != null && (channel.size() >= maxBytes
+                || (rollIntervalMillis > 0 && now - openedAtMillis >= rollIntervalMillis))) {
+            closeQuietly();
+            roll(now);
+        }
+        if (channel == null) {
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            openedAtMillis = now;
+        }
+        return channel;
+    }
+
+    // AuditTrax.log -> AuditTrax-20250101-120000.log (with a counter if that name is taken)
+    private static void roll(long now) throws IOException {
+        if (!Files.exists(file)) return;
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        String stamp = ROLL_SUFFIX.format(Instant.ofEpochMilli(now));
+
+        Path target = file.resolveSibling(base + "-" + stamp + extension);
+        for (int i = 1; Files.exists(target); i++) {
+            target = file.resolveSibling(base + "-" + stamp + "-" + i + extension);
+        }
+        Files.move(file, target);
+    }
+
+    private static void closeQuietly() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close audit log: " + e.getMessage());
+        }
+        channel = null;
+    }
+}
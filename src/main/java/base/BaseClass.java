@@ -1,108 +1,287 @@
 package base;
 
-import io.qameta.allure.Attachment;
 import org.openqa.selenium.*;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 public class BaseClass {
 
 private static final int SHORT_WAIT = 5;
 private static final int MEDIUM_WAIT = 10;
-private static final int LONG_WAIT = 30;
 
 private static WebDriver getDriver() {
     return DriverInstance.getDriver();
 }
 
 private static WebElement waitForClickable(By locator, int timeoutSeconds) {
-    return new WebDriverWait(getDriver(), Duration.ofSeconds(timeoutSeconds))
-            .until(ExpectedConditions.elementToBeClickable(locator));
+    return Waits.until(ExpectedConditions.elementToBeClickable(locator), Duration.ofSeconds(timeoutSeconds), locator.toString());
 }
 
 private static WebElement waitForVisible(By locator, int timeoutSeconds) {
-    return new WebDriverWait(getDriver(), Duration.ofSeconds(timeoutSeconds))
-            .until(ExpectedConditions.visibilityOfElementLocated(locator));
+    return Waits.until(ExpectedConditions.visibilityOfElementLocated(locator), Duration.ofSeconds(timeoutSeconds), locator.toString());
+}
+
+// Page objects call this from their constructor to opt into ElementCache (see elementCache.* in envConfig)
+public static void useElementCache(Class<?> page) {
+    ElementCache.use(page);
+}
+
+// Page objects call this from their constructor so navigations are checked against perfBudget.<PageClass>.*
+public static void usePerformanceBudget(Class<?> page) {
+    PerformanceBudgets.page(page);
+}
+
+// Runs the action on a cached handle when the page opted into ElementCache and the handle still passes
+// the check the wait would have made; otherwise (or once it went stale) it waits and resolves again
+private static <T> T withElement(By locator, Function<By, WebElement> resolve, Predicate<WebElement> ready,
+                                 Function<WebElement, T> action) {
+    WebElement cached = ElementCache.get(locator);
+    if (cached != null) {
+        try {
+            if (ready.test(cached)) {
+                return action.apply(cached);
+            }
+        } catch (StaleElementReferenceException e) {
+            ElementCache.stale(locator);
+        }
+    }
+    WebElement element = resolve.apply(locator);
+    ElementCache.put(locator, element);
+    return action.apply(element);
+}
+
+private static <T> T withClickable(By locator, Function<WebElement, T> action) {
+    return withElement(locator, by -> waitForClickable(by, MEDIUM_WAIT),
+            element -> element.isDisplayed() && element.isEnabled(), action);
+}
+
+private static <T> T withVisible(By locator, Function<WebElement, T> action) {
+    return withElement(locator, by -> waitForVisible(by, MEDIUM_WAIT), WebElement::isDisplayed, action);
 }
 
 public static void click(By locator) {
+    long start = System.nanoTime();
     try {
-        waitForClickable(locator, MEDIUM_WAIT).click();
+        withClickable(locator, element -> {
+            element.click();
+            return null;
+        });
+        ElementCache.afterInteraction();
     } catch (Exception e) {
         System.err.println("Click failed on element: " + locator);
         throw e;
+    } finally {
+        ActionMetrics.record("click", locator, start);
     }
 }
 
 public static void enterText(By locator, String value) {
+    long start = System.nanoTime();
     try {
-        WebElement element = waitForClickable(locator, MEDIUM_WAIT);
-        element.clear();
-        element.sendKeys(value);
+        withClickable(locator, element -> {
+            element.clear();
+            element.sendKeys(value);
+            return null;
+        });
+        ElementCache.afterInteraction();
     } catch (Exception e) {
         System.err.println("Failed to enter text on element: " + locator);
         throw e;
+    } finally {
+        ActionMetrics.record("enterText", locator, start);
+    }
+}
+
+/**
+ * Fills several fields in one browser round trip: text inputs, selects (by value or visible text)
+ * and radios/checkboxes ("true" to check). Pass a LinkedHashMap to keep the fill order.
+ * Fields listed in {@code realKeystrokes}, and any the batch could not set, go through enterText/selectDropdownByValue,
+ * or a click for radios/checkboxes whose state differs from the value.
+ *
+ * @throws IllegalArgumentException If a field value is null.
+ */
+public static void fillForm(Map<By, String> fields, By... realKeystrokes) {
+    long start = System.nanoTime();
+    try {
+        Set<By> keystrokeFields = Set.of(realKeystrokes);
+        List<Map.Entry<By, String>> ordered = new ArrayList<>();
+        List<Integer> batchPositions = new ArrayList<>();
+        List<Map.Entry<By, String>> batch = new ArrayList<>();
+        List<Integer> nativePositions = new ArrayList<>();
+        for (Map.Entry<By, String> field : fields.entrySet()) {
+            if (field.getValue() == null) {
+                throw new IllegalArgumentException("fillForm value for " + field.getKey() + " is null");
+            }
+            if (keystrokeFields.contains(field.getKey())) {
+                nativePositions.add(ordered.size());
+            } else {
+                batchPositions.add(ordered.size());
+                batch.add(field);
+            }
+            ordered.add(field);
+        }
+
+        if (!batch.isEmpty()) {
+            // One wait for the form to be there, then one script for every field
+            waitForVisible(batch.get(0).getKey(), MEDIUM_WAIT);
+            for (int index : FormFiller.apply(getDriver(), batch)) {
+                nativePositions.add(batchPositions.get(index));
+            }
+        }
+
+        // Fields the batch could not set and real-keystroke fields go in the caller's order,
+        // since later fields may only appear once earlier ones are filled
+        nativePositions.sort(null);
+        List<Map.Entry<By, String>> nativeFields = new ArrayList<>();
+        for (int position : nativePositions) {
+            nativeFields.add(ordered.get(position));
+        }
+
+        for (Map.Entry<By, String> field : nativeFields) {
+            WebElement element = waitForVisible(field.getKey(), MEDIUM_WAIT);
+            String type = String.valueOf(element.getAttribute("type"));
+            if ("select".equalsIgnoreCase(element.getTagName())) {
+                selectDropdownByValue(field.getKey(), field.getValue());
+            } else if ("radio".equalsIgnoreCase(type) || "checkbox".equalsIgnoreCase(type)) {
+                // Clicked only when the state has to change; clear() would throw on these
+                if (element.isSelected() != Boolean.parseBoolean(field.getValue().trim())) {
+                    click(field.getKey());
+                }
+            } else {
+                enterText(field.getKey(), field.getValue());
+            }
+        }
+    } catch (Exception e) {
+        System.err.println("Failed to fill form: " + fields.keySet());
+        throw e;
+    } finally {
+        ActionMetrics.record("fillForm", null, start);
     }
 }
 
 public static void selectDropdownByValue(By locator, String value) {
-    new Select(waitForVisible(locator, MEDIUM_WAIT)).selectByValue(value);
+    long start = System.nanoTime();
+    try {
+        withVisible(locator, element -> {
+            new Select(element).selectByValue(value);
+            return null;
+        });
+        ElementCache.afterInteraction();
+    } finally {
+        ActionMetrics.record("selectDropdownByValue", locator, start);
+    }
 }
 
 public static void selectDropdownByText(By locator, String text) {
-    new Select(waitForVisible(locator, MEDIUM_WAIT)).selectByVisibleText(text);
+    long start = System.nanoTime();
+    try {
+        withVisible(locator, element -> {
+            new Select(element).selectByVisibleText(text);
+            return null;
+        });
+        ElementCache.afterInteraction();
+    } finally {
+        ActionMetrics.record("selectDropdownByText", locator, start);
+    }
 }
 
 public static void scrollToElement(By locator) {
-    WebElement element = waitForVisible(locator, MEDIUM_WAIT);
-    ((JavascriptExecutor) getDriver()).executeScript("arguments[0].scrollIntoView(true);", element);
+    long start = System.nanoTime();
+    try {
+        withVisible(locator,
+                element -> ((JavascriptExecutor) getDriver()).executeScript("arguments[0].scrollIntoView(true);", element));
+    } finally {
+        ActionMetrics.record("scrollToElement", locator, start);
+    }
 }
 
 public static boolean isElementPresent(By locator, int timeoutSeconds) {
+    long start = System.nanoTime();
     try {
-        new WebDriverWait(getDriver(), Duration.ofSeconds(timeoutSeconds))
-                .until(ExpectedConditions.presenceOfElementLocated(locator));
+        Waits.until(ExpectedConditions.presenceOfElementLocated(locator), Duration.ofSeconds(timeoutSeconds), locator.toString());
         return true;
     } catch (TimeoutException e) {
         System.err.println("Element not present: " + locator);
         return false;
+    } finally {
+        ActionMetrics.record("isElementPresent", locator, start);
     }
 }
 
 public static boolean isElementVisible(By locator, int timeoutSeconds) {
+    long start = System.nanoTime();
     try {
         return waitForVisible(locator, timeoutSeconds).isDisplayed();
     } catch (Exception e) {
         System.err.println("Element not visible: " + locator);
         return false;
+    } finally {
+        ActionMetrics.record("isElementVisible", locator, start);
     }
 }
 
 public static void mouseHover(By locator) {
-    WebElement element = waitForVisible(locator, MEDIUM_WAIT);
-    new Actions(getDriver()).moveToElement(element).perform();
+    long start = System.nanoTime();
+    try {
+        withVisible(locator, element -> {
+            new Actions(getDriver()).moveToElement(element).perform();
+            return null;
+        });
+    } finally {
+        ActionMetrics.record("mouseHover", locator, start);
+    }
 }
 
 public static void doubleClick(By locator) {
-    WebElement element = waitForClickable(locator, MEDIUM_WAIT);
-    new Actions(getDriver()).doubleClick(element).perform();
+    long start = System.nanoTime();
+    try {
+        withClickable(locator, element -> {
+            new Actions(getDriver()).doubleClick(element).perform();
+            return null;
+        });
+        ElementCache.afterInteraction();
+    } finally {
+        ActionMetrics.record("doubleClick", locator, start);
+    }
 }
 
 public static void rightClick(By locator) {
-    WebElement element = waitForClickable(locator, MEDIUM_WAIT);
-    new Actions(getDriver()).contextClick(element).perform();
+    long start = System.nanoTime();
+    try {
+        withClickable(locator, element -> {
+            new Actions(getDriver()).contextClick(element).perform();
+            return null;
+        });
+    } finally {
+        ActionMetrics.record("rightClick", locator, start);
+    }
 }
 
 public static String getText(By locator) {
-    return waitForVisible(locator, MEDIUM_WAIT).getText();
+    long start = System.nanoTime();
+    try {
+        return withVisible(locator, WebElement::getText);
+    } finally {
+        ActionMetrics.record("getText", locator, start);
+    }
 }
 
 public static String getAttribute(By locator, String attribute) {
-    return waitForVisible(locator, MEDIUM_WAIT).getAttribute(attribute);
+    long start = System.nanoTime();
+    try {
+        return withVisible(locator, element -> element.getAttribute(attribute));
+    } finally {
+        ActionMetrics.record("getAttribute", locator, start);
+    }
 }
 
 public static void assertTextEquals(By locator, String expectedText) {
@@ -120,20 +299,45 @@ public static void assertTextNotEquals(By locator, String expectedSubstring) {
 }
 
 public static void waitForInvisibility(By locator, int timeoutSeconds) {
-    new WebDriverWait(getDriver(), Duration.ofSeconds(timeoutSeconds))
-            .until(ExpectedConditions.invisibilityOfElementLocated(locator));
+    long start = System.nanoTime();
+    try {
+        Waits.until(ExpectedConditions.invisibilityOfElementLocated(locator), Duration.ofSeconds(timeoutSeconds), locator.toString());
+    } finally {
+        ActionMetrics.record("waitForInvisibility", locator, start);
+    }
 }
 
+// Waits according to the global pageReady.* thresholds
 public static void waitForPageLoad() {
-    new WebDriverWait(getDriver(), Duration.ofSeconds(LONG_WAIT)).until(
-            webDriver -> ((JavascriptExecutor) webDriver)
-                    .executeScript("return document.readyState").equals("complete")
-    );
+    waitForPageLoad(PageReadiness.defaults(), "pageReady");
 }
 
-@Attachment(value = "Screenshot", type = "image/png")
+// Waits according to pageReady.<PageClass>.* thresholds, e.g. pageReady.Login.idleTime
+public static void waitForPageLoad(Class<?> page) {
+    PerformanceBudgets.page(page);
+    waitForPageLoad(PageReadiness.forPage(page.getSimpleName()), "pageReady:" + page.getSimpleName());
+}
+
+private static void waitForPageLoad(PageReadiness.Thresholds thresholds, String label) {
+    long start = System.nanoTime();
+    try {
+        ElementCache.invalidate();
+        PageReadiness.await(thresholds, label);
+    } finally {
+        ActionMetrics.record("waitForPageLoad", null, start);
+    }
+    PerformanceBudgets.capture();
+}
+
+// Capture according to the configured screenshot.policy; attachment writing happens off the test thread.
+// Returns the PNG bytes as before, or an empty array when the policy skipped this step.
 public static byte[] captureScreenshot() {
-    return ((TakesScreenshot) getDriver()).getScreenshotAs(OutputType.BYTES);
+    long start = System.nanoTime();
+    try {
+        return ScreenshotManager.onStep();
+    } finally {
+        ActionMetrics.record("captureScreenshot", null, start);
+    }
 }
 
 }
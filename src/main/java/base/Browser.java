@@ -0,0 +1,21 @@
+package base;
+
+/**
+ * Browsers the framework can launch, as named by the browserName config key.
+ */
+public enum Browser {
+    CHROME,
+    FIREFOX;
+
+    public static Browser fromString(String value) {
+        if (Utility.isEmpty(value)) {
+            throw new IllegalArgumentException("Unsupported browser: " + value);
+        }
+        for (Browser browser : values()) {
+            if (browser.name().equalsIgnoreCase(value.trim())) {
+                return browser;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported browser: " + value);
+    }
+}
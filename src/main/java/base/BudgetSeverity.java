@@ -0,0 +1,13 @@
+package base;
+
+/**
+ * What a performance budget violation does to the test. See {@link PerformanceBudgets}.
+ */
+public enum BudgetSeverity {
+    // Metrics are still captured and trended, budgets are not checked
+    OFF,
+    // Violations are logged and shown on the Allure attachment, the test keeps its status
+    SOFT,
+    // A passing test with violations is marked failed
+    HARD
+}
@@ -0,0 +1,318 @@
+package base;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide, immutable snapshot of envConfig.properties.
+ * Any key can be overridden by an environment variable (upper snake case,
+ * e.g. driverPool.maxSize -> DRIVER_POOL_MAX_SIZE) and then by a system property of the same
+ * name (e.g. -DbrowserName=firefox). Keys the file does not declare, such as the per-page
+ * pageReady.<PageClass>.* keys, are resolved on first lookup and kept for the snapshot.
+ * The snapshot is loaded and validated once; set config.reloadOnChange=true to pick up
+ * edits to the properties file during long-running local sessions. The file watched is the copy
+ * on the classpath (target/classes when run from Maven), so edit that copy, or run
+ * mvn process-resources after editing src/main/resources, for a change to be picked up.
+ * Feature classes validate their own keys through {@link #addValidator}.
+ */
+public final class Config {
+
+    private static final Object LOCK = new Object();
+    private static volatile Config current;
+    private static final List<Consumer<Config>> validators = new CopyOnWriteArrayList<>();
+
+    private final Map<String, String> values;
+    private final Path sourceFile;
+    private final long sourceModified;
+    private final long nextReloadCheck;
+    private final Map<String, Optional<String>> undeclared = new ConcurrentHashMap<>();
+
+    private Config(Map<String, String> values, Path sourceFile, long sourceModified) {
+        this.values = Collections.unmodifiableMap(values);
+        this.sourceFile = sourceFile;
+        this.sourceModified = sourceModified;
+        this.nextReloadCheck = System.currentTimeMillis() + reloadCheckMillis(values);
+    }
+
+    /**
+     * Returns the current snapshot, loading and validating it on first use.
+     *
+     * @throws UncheckedIOException  If the properties file cannot be read.
+     * @throws IllegalStateException If a value fails validation.
+     */
+    public static Config get() {
+        Config config = current;
+        if (config == null) {
+            synchronized (LOCK) {
+                if (current == null) {
+                    current = load();
+                }
+                return current;
+            }
+        }
+        if (config.shouldReload()) {
+            Config reloaded;
+            synchronized (LOCK) {
+                if (current == config) {
+                    current = reload(config);
+                }
+                reloaded = current;
+            }
+            // Logged outside the lock: AuditLog reads the config itself when it is first loaded
+            if (reloaded.sourceModified != config.sourceModified) {
+                AuditLog.info("[Config] Reloaded " + Utility.envConfig_Property_File_Path);
+            }
+            return reloaded;
+        }
+        return config;
+    }
+
+    // Every getter goes through here so TestImpact can see which keys a test depends on
+    private String read(String key) {
+        TestImpact.read("config:" + key);
+        String value = values.get(key);
+        if (value == null) {
+            value = undeclared.computeIfAbsent(key, k -> Optional.ofNullable(override(k, null))).orElse(null);
+        }
+        return value;
+    }
+
+    // Environment variable over the file, system property over both
+    private static String override(String key, String value) {
+        String env = System.getenv(toEnvName(key));
+        if (env != null) value = env;
+        return System.getProperty(key, value);
+    }
+
+    public String getString(String key) {
+        return read(key);
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = read(key);
+        return Utility.isEmpty(value) ? defaultValue : value;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = read(key);
+        if (Utility.isEmpty(value)) return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw invalid(key, value, "an integer");
+        }
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = read(key);
+        if (Utility.isEmpty(value)) return defaultValue;
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw invalid(key, value, "a long");
+        }
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = read(key);
+        if (Utility.isEmpty(value)) return defaultValue;
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw invalid(key, value, "a number");
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = read(key);
+        if (Utility.isEmpty(value)) return defaultValue;
+        String trimmed = value.trim();
+        if (trimmed.equalsIgnoreCase("true")) return true;
+        if (trimmed.equalsIgnoreCase("false")) return false;
+        throw invalid(key, value, "true or false");
+    }
+
+    /**
+     * Parses durations written as ISO-8601 (PT10S) or a number with an ms/s/m/h suffix.
+     * A bare number is read as milliseconds.
+     */
+    public Duration getDuration(String key, Duration defaultValue) {
+        String value = read(key);
+        if (Utility.isEmpty(value)) return defaultValue;
+        try {
+            return parseDuration(value.trim());
+        } catch (RuntimeException e) {
+            throw invalid(key, value, "a duration such as 250ms, 10s or PT10S");
+        }
+    }
+
+    public <E extends Enum<E>> E getEnum(String key, Class<E> type, E defaultValue) {
+        String value = read(key);
+        if (Utility.isEmpty(value)) return defaultValue;
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw invalid(key, value, "one of " + Arrays.toString(type.getEnumConstants()));
+        }
+    }
+
+    public URL getUrl(String key) {
+        String value = read(key);
+        if (Utility.isEmpty(value)) {
+            throw invalid(key, value, "an absolute URL");
+        }
+        try {
+            URI uri = new URI(value.trim());
+            if (!uri.isAbsolute() || uri.getHost() == null) {
+                throw invalid(key, value, "an absolute URL");
+            }
+            return uri.toURL();
+        } catch (URISyntaxException | MalformedURLException | IllegalArgumentException e) {
+            throw invalid(key, value, "an absolute URL");
+        }
+    }
+
+    public Browser getBrowser() {
+        try {
+            return Browser.fromString(read("browserName"));
+        } catch (IllegalArgumentException e) {
+            throw invalid("browserName", read("browserName"), "one of chrome, firefox");
+        }
+    }
+
+    public String getApplicationUrl() {
+        return getUrl("applicationLoginURL").toString();
+    }
+
+    // Everything the framework cannot start without is checked up front; feature classes
+    // check their own keys through addValidator
+    private void validate() {
+        getBrowser();
+        getApplicationUrl();
+        getBoolean("config.reloadOnChange", false);
+        getDuration("config.reloadCheckInterval", Duration.ofSeconds(2));
+        for (Consumer<Config> validator : validators) {
+            validator.accept(this);
+        }
+    }
+
+    /**
+     * Registers a check for the keys a feature reads. It runs against the current snapshot right away
+     * and against every reloaded one, so a broken edit is rejected before the feature sees it.
+     * By convention each feature class calls this from a static initializer, reading every key it owns,
+     * so its keys are checked on first use of the class and again on every reload. The keys read by
+     * that first run are also dependencies of every test for TestImpact, since features cache them
+     * in static fields.
+     *
+     * @throws IllegalStateException If a value fails the check.
+     */
+    public static void addValidator(Consumer<Config> validator) {
+        Config config = get();
+        TestImpact.initializer(() -> validator.accept(config));
+        validators.add(validator);
+    }
+
+    private boolean shouldReload() {
+        return sourceFile != null
+                && getBoolean("config.reloadOnChange", false)
+                && System.currentTimeMillis() >= nextReloadCheck;
+    }
+
+    private static Config load() {
+        URL resource = Config.class.getClassLoader().getResource(Utility.envConfig_Property_File_Path);
+        if (resource == null) {
+            throw new UncheckedIOException(new IOException("envConfig.properties not found."));
+        }
+
+        Properties property = new Properties();
+        try (InputStream is = resource.openStream()) {
+            property.load(is);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Map<String, String> values = new HashMap<>();
+        for (String key : property.stringPropertyNames()) {
+            values.put(key, override(key, property.getProperty(key)));
+        }
+
+        Path sourceFile = null;
+        long modified = 0;
+        if ("file".equals(resource.getProtocol())) {
+            try {
+                sourceFile = Paths.get(resource.toURI());
+                modified = Files.getLastModifiedTime(sourceFile).toMillis();
+            } catch (URISyntaxException | IOException e) {
+                sourceFile = null;
+            }
+        }
+
+        Config config = new Config(values, sourceFile, modified);
+        config.validate();
+        return config;
+    }
+
+    // A broken edit keeps the previous snapshot instead of failing the running suite
+    private static Config reload(Config previous) {
+        try {
+            long modified = Files.getLastModifiedTime(previous.sourceFile).toMillis();
+            if (modified == previous.sourceModified) {
+                return new Config(new HashMap<>(previous.values), previous.sourceFile, previous.sourceModified);
+            }
+            return load();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Config reload failed, keeping previous values: " + e.getMessage());
+            return new Config(new HashMap<>(previous.values), previous.sourceFile, previous.sourceModified);
+        }
+    }
+
+    static String toEnvName(String key) {
+        return key.replaceAll("([a-z0-9])([A-Z])", "$1_$2")
+                .replace('.', '_')
+                .replace('-', '_')
+                .toUpperCase(Locale.ROOT);
+    }
+
+    private static Duration parseDuration(String value) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("p")) return Duration.parse(value);
+        if (lower.endsWith("ms")) return Duration.ofMillis(Long.parseLong(lower.substring(0, lower.length() - 2).trim()));
+        if (lower.endsWith("s")) return Duration.ofSeconds(Long.parseLong(lower.substring(0, lower.length() - 1).trim()));
+        if (lower.endsWith("m")) return Duration.ofMinutes(Long.parseLong(lower.substring(0, lower.length() - 1).trim()));
+        if (lower.endsWith("h")) return Duration.ofHours(Long.parseLong(lower.substring(0, lower.length() - 1).trim()));
+        return Duration.ofMillis(Long.parseLong(lower));
+    }
+
+    private static long reloadCheckMillis(Map<String, String> values) {
+        String value = values.get("config.reloadCheckInterval");
+        try {
+            return Utility.isEmpty(value) ? 2000 : parseDuration(value.trim()).toMillis();
+        } catch (RuntimeException e) {
+            return 2000;
+        }
+    }
+
+    private static IllegalStateException invalid(String key, String value, String expected) {
+        return new IllegalStateException(String.format("Invalid config value for '%s': '%s' (expected %s)", key, value, expected));
+    }
+}
@@ -2,6 +2,7 @@ package base;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.Iterator;
 
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFRow;
@@ -10,6 +11,10 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 public class DataGenerators {
 
+    static {
+        Config.addValidator(config -> config.getBoolean("testData.cacheEnabled", true));
+    }
+
     /**
      * Reads test data from an Excel sheet and returns it as a 2D Object array.
      *
@@ -19,6 +24,17 @@ public class DataGenerators {
      * @throws IOException If file reading fails.
      */
     public static Object[][] getTestData(String filePath, String sheetName) throws IOException {
+        TestImpact.read("sheet:" + filePath + "#" + sheetName);
+        if (Config.get().getBoolean("testData.cacheEnabled", true)) {
+            return TestDataCache.get(filePath, sheetName, () -> readWorkbook(filePath, sheetName));
+        }
+        return readWorkbook(filePath, sheetName);
+    }
+
+    /**
+     * Parses the sheet with the XSSFWorkbook DOM; used on a cache miss.
+     */
+    private static Object[][] readWorkbook(String filePath, String sheetName) throws IOException {
         try (FileInputStream file = new FileInputStream(filePath);
              XSSFWorkbook workbook = new XSSFWorkbook(file)) {
 
@@ -42,6 +58,21 @@ public class DataGenerators {
         }
     }
 
+    /**
+     * Streams test data from an Excel sheet one row at a time, for large sheets and
+     * {@code @DataProvider(parallel = true)} methods that return {@code Iterator<Object[]>}.
+     *
+     * @param filePath   Absolute or relative path to the Excel file.
+     * @param sheetName  Name of the sheet from which data should be read.
+     * @param columns    Header names of the columns to return, in order; all columns when omitted.
+     * @return Iterator over the data rows (excluding header); the file is closed after the last row.
+     * @throws IOException If the file, sheet or a requested column cannot be found.
+     */
+    public static Iterator<Object[]> streamTestData(String filePath, String sheetName, String... columns) throws IOException {
+        TestImpact.read("sheet:" + filePath + "#" + sheetName);
+        return new ExcelRowIterator(filePath, sheetName, columns);
+    }
+
     /**
      * Retrieves the maximum number of columns used across all rows.
      */
@@ -0,0 +1,124 @@
+package base;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+/**
+ * Resolves driver and browser binaries once per JVM instead of calling WebDriverManager per test.
+ * Resolutions are persisted in driverCache.file and reused across runs until driverCache.ttl expires.
+ * With driverCache.offline=true WebDriverManager is never called: binaries come from the
+ * webdriver.*.driver system properties or the cache, and a missing entry fails fast.
+ */
+public class DriverBinaries {
+
+    static {
+        Config.addValidator(config -> {
+            config.getBoolean("driverCache.offline", false);
+            config.getDuration("driverCache.ttl", Duration.ZERO);
+        });
+    }
+
+    /**
+     * @param browserBinary Null when WebDriverManager could not detect the browser; Selenium then finds it.
+     */
+    public record Resolved(Path driver, Path browserBinary) {
+    }
+
+    private static final Map<Browser, Resolved> resolved = new ConcurrentHashMap<>();
+
+    public static Resolved resolve(Browser browser) {
+        return resolved.computeIfAbsent(browser, DriverBinaries::lookup);
+    }
+
+    private static Resolved lookup(Browser browser) {
+        Config config = Config.get();
+        boolean offline = config.getBoolean("driverCache.offline", false);
+        String driverProperty = browser == Browser.CHROME ? "webdriver.chrome.driver" : "webdriver.gecko.driver";
+        String key = browser.name().toLowerCase();
+
+        // An explicitly configured driver always wins
+        String explicit = System.getProperty(driverProperty);
+        if (explicit != null && Files.isExecutable(Paths.get(explicit))) {
+            return new Resolved(Paths.get(explicit), null);
+        }
+
+        Path cacheFile = cacheFile();
+        Properties cache = readCache(cacheFile);
+        Path cachedDriver = path(cache.getProperty(key + ".driver"));
+        long resolvedAt = Long.parseLong(cache.getProperty(key + ".resolvedAt", "0"));
+        boolean fresh = System.currentTimeMillis() - resolvedAt < config.getDuration("driverCache.ttl", Duration.ofHours(24)).toMillis();
+
+        if (cachedDriver != null && Files.isExecutable(cachedDriver) && (offline || fresh)) {
+            System.setProperty(driverProperty, cachedDriver.toString());
+            return new Resolved(cachedDriver, path(cache.getProperty(key + ".browser")));
+        }
+        if (offline) {
+            throw new IllegalStateException("driverCache.offline=true but no usable " + key + " driver in " + cacheFile
+                    + "; run once online or set -D" + driverProperty);
+        }
+
+        WebDriverManager manager = browser == Browser.CHROME ? WebDriverManager.chromedriver() : WebDriverManager.firefoxdriver();
+        manager.setup();
+        Path driver = Paths.get(manager.getDownloadedDriverPath());
+        Path browserBinary = manager.getBrowserPath().orElse(null);
+
+        cache.setProperty(key + ".driver", driver.toString());
+        if (browserBinary != null) {
+            cache.setProperty(key + ".browser", browserBinary.toString());
+        } else {
+            cache.remove(key + ".browser");
+        }
+        cache.setProperty(key + ".resolvedAt", String.valueOf(System.currentTimeMillis()));
+        writeCache(cacheFile, cache);
+        return new Resolved(driver, browserBinary);
+    }
+
+    private static Path cacheFile() {
+        String configured = Config.get().getString("driverCache.file", "");
+        return configured.isEmpty()
+                ? Paths.get(System.getProperty("user.home"), ".cache", "automationexercise", "drivers.properties")
+                : Paths.get(configured);
+    }
+
+    private static Path path(String value) {
+        return Utility.isEmpty(value) ? null : Paths.get(value);
+    }
+
+    private static Properties readCache(Path file) {
+        Properties cache = new Properties();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                cache.load(reader);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Ignoring unreadable driver cache " + file + ": " + e.getMessage());
+            }
+        }
+        return cache;
+    }
+
+    // Best effort: a failed write only means the next JVM resolves again
+    private static void writeCache(Path file, Properties cache) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                cache.store(writer, "Resolved driver/browser binaries, written by DriverBinaries");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Failed to write driver cache " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -6,19 +6,22 @@ import java.util.Objects;
 
 import org.openqa.selenium.Capabilities;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.remote.SessionId;
+import org.openqa.selenium.remote.UnreachableBrowserException;
 
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
-import com.google.common.collect.ImmutableMap;
-import static com.github.automatedowl.tools.AllureEnvironmentWriter.allureEnvironmentWriter;
 
 public class DriverInstance {
     // Thread-safe WebDriver for parallel execution
@@ -40,65 +43,121 @@ public static String getBrowserVersion() {
     return browserVersion.get();
 }
 
-@BeforeMethod(alwaysRun = true)
-public void setUpDriver() throws IOException {
-    String browser = Utility.fetchConfigPropertyValue("browserName");
-    String appUrl = Utility.fetchConfigPropertyValue("applicationLoginURL");
+// Application URL, or the embedded local stand-in when localSite.enabled=true
+public static String getApplicationUrl() {
+    return LocalSite.isEnabled() ? LocalSite.start() : Config.get().getApplicationUrl();
+}
 
+// Launch a new browser session and open the application URL
+static WebDriver createDriver(Browser browser, String appUrl) {
     WebDriver driver;
+    // GRID sessions run on remote nodes: no local binaries, driver service or process tracking
+    boolean grid = ExecutionMode.current() == ExecutionMode.GRID;
 
-    if (browser.equalsIgnoreCase("chrome")) {
-        WebDriverManager.chromedriver().setup();
+    if (browser == Browser.CHROME) {
         ChromeOptions options = new ChromeOptions();
         options.addArguments("--headless", "--no-sandbox", "--disable-gpu", "--window-size=1920,1080");
-        driver = new ChromeDriver(options);
-
-    } else if (browser.equalsIgnoreCase("firefox")) {
-        WebDriverManager.firefoxdriver().setup();
+        RequestBlocker.configure(options);
+        if (grid) {
+            driver = GridAllocator.createSession(browser, options);
+        } else {
+            // Resolved once per JVM (and cached on disk), see DriverBinaries
+            DriverBinaries.Resolved binaries = DriverBinaries.resolve(browser);
+            if (binaries.browserBinary() != null) {
+                options.setBinary(binaries.browserBinary().toFile());
+            }
+            // Explicit service so the driver process can be found by its port if quit() hangs
+            ChromeDriverService service = new ChromeDriverService.Builder()
+                    .usingDriverExecutable(binaries.driver().toFile()).usingAnyFreePort().build();
+            driver = new ChromeDriver(service, options);
+            AsyncTeardown.track(driver, service.getUrl().getPort());
+        }
+
+    } else if (browser == Browser.FIREFOX) {
         FirefoxOptions options = new FirefoxOptions();
         options.addArguments("--headless");
         options.addArguments("--width=1920", "--height=1080");
-        driver = new FirefoxDriver(options);
+        RequestBlocker.configure(options);
+        if (grid) {
+            driver = GridAllocator.createSession(browser, options);
+        } else {
+            DriverBinaries.Resolved binaries = DriverBinaries.resolve(browser);
+            if (binaries.browserBinary() != null) {
+                options.setBinary(binaries.browserBinary());
+            }
+            GeckoDriverService service = new GeckoDriverService.Builder()
+                    .usingDriverExecutable(binaries.driver().toFile()).usingAnyFreePort().build();
+            driver = new FirefoxDriver(service, options);
+            AsyncTeardown.track(driver, service.getUrl().getPort());
+        }
 
     } else {
         throw new IllegalArgumentException("Unsupported browser: " + browser);
     }
 
+    // Implicit wait defaults to zero so it never stacks on top of the explicit waits in Waits
+    driver.manage().timeouts().implicitlyWait(Config.get().getDuration("wait.implicit", Duration.ZERO));
+    // Block list and page-ready observer have to be in place before the first navigation
+    RequestBlocker.attach(driver);
+    PageReadiness.install(driver);
+    driver.get(appUrl);
+    return driver;
+}
+
+@BeforeMethod(alwaysRun = true)
+public void setUpDriver() throws IOException {
+    Config config = Config.get();
+    Browser browser = config.getBrowser();
+    String appUrl = getApplicationUrl();
+
+    // Pooled sessions come back already reset to the application URL
+    WebDriver driver = DriverPool.isEnabled()
+            ? DriverPool.borrow(browser)
+            : createDriver(browser, appUrl);
+
     // Assign the thread-safe driver
     driverThreadLocal.set(driver);
 
-    // Set implicit wait and open URL
-    driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-    driver.get(appUrl);
-
     // Capture and store browser info
     Capabilities caps = ((RemoteWebDriver) driver).getCapabilities();
     browserName.set(caps.getBrowserName());
     browserVersion.set(caps.getBrowserVersion());
 
-    // Write environment info for Allure report
-    allureEnvironmentWriter(
-            ImmutableMap.of(
-                    "Browser", browserName.get(),
-                    "Browser.Version", browserVersion.get(),
-                    "URL", appUrl
-            ),
-            "../amz-common/allure-results"
-    );
+    // Environment info for the Allure report, written once at suite finish
+    AllureEnvironment.record("Browser", browserName.get());
+    AllureEnvironment.record("Browser.Version", browserName.get() + " " + browserVersion.get());
+    AllureEnvironment.record("URL", appUrl);
 
     // Log session for debug
     SessionId sessionId = ((RemoteWebDriver) driver).getSessionId();
-    System.out.println("[Thread] Session ID: " + sessionId);
+    AuditLog.info("[Thread] Session ID: " + sessionId);
 }
 
 @AfterMethod(alwaysRun = true)
-public void quitDriver() {
+public void quitDriver(ITestResult result) {
     WebDriver driver = driverThreadLocal.get();
     if (Objects.nonNull(driver)) {
-        driver.quit();
+        // A lost session is never handed out again; locator and wait failures leave a healthy browser
+        if (isSessionLost(result.getThrowable())) {
+            DriverPool.evict(driver);
+        } else {
+            // Release quits unpooled sessions in the background and resets pooled ones for the next test
+            DriverPool.release(driver);
+        }
+        ElementCache.clear();
         driverThreadLocal.remove();
         browserName.remove();
         browserVersion.remove();
     }
 }
+
+private static boolean isSessionLost(Throwable failure) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+        if (cause instanceof NoSuchSessionException || cause instanceof SessionNotCreatedException
+                || cause instanceof UnreachableBrowserException) {
+            return true;
+        }
+    }
+    return false;
+}
 }
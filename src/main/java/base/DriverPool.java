@@ -0,0 +1,235 @@
+package base;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Bounded, thread-safe pool of warm WebDriver sessions keyed by browser type.
+ * Tests borrow a session in @BeforeMethod and hand it back in @AfterMethod, where it is
+ * reset (cookies, local/session storage, back to applicationLoginURL) instead of quit.
+ * driverPool.maxSize caps the sessions of one JVM in every execution mode; with execution.mode=GRID
+ * that is the grid fan-out per fork, whatever capacity the grid reports.
+ */
+public class DriverPool {
+
+    static {
+        Config.addValidator(config -> {
+            config.getBoolean("driverPool.enabled", false);
+            config.getInt("driverPool.maxSize", 1);
+            config.getInt("driverPool.maxReuse", 1);
+            config.getDuration("driverPool.borrowTimeout", Duration.ZERO);
+            config.getInt("driverPool.warmUp", 0);
+        });
+    }
+
+    private static final Map<Browser, BlockingDeque<PooledSession>> idleSessions = new ConcurrentHashMap<>();
+    private static final Map<Browser, Semaphore> sessionPermits = new ConcurrentHashMap<>();
+    private static final Map<WebDriver, PooledSession> leasedSessions = new ConcurrentHashMap<>();
+
+    private static final long IDLE_POLL_MILLIS = 250;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverPool::shutdown, "driver-pool-shutdown"));
+    }
+
+    /**
+     * A live browser session together with the number of tests it has served.
+     */
+    private static final class PooledSession {
+        private final WebDriver driver;
+        private final Browser browser;
+        private int uses;
+
+        private PooledSession(WebDriver driver, Browser browser) {
+            this.driver = driver;
+            this.browser = browser;
+        }
+    }
+
+    // Pool is opt-in through envConfig; any other value keeps the per-method launch/quit mode
+    public static boolean isEnabled() {
+        return Config.get().getBoolean("driverPool.enabled", false);
+    }
+
+    /**
+     * Borrows a healthy session for the given browser, launching one if the pool is below its bound.
+     * When the pool stays saturated past the borrow timeout, an unpooled session is returned instead.
+     */
+    public static WebDriver borrow(Browser browser) {
+        BlockingDeque<PooledSession> idle = idleSessions.computeIfAbsent(browser, k -> new LinkedBlockingDeque<>());
+        Semaphore permits = sessionPermits.computeIfAbsent(browser, k -> new Semaphore(maxSize()));
+        long deadline = System.nanoTime() + borrowTimeout().toNanos();
+
+        try {
+            while (System.nanoTime() < deadline) {
+                PooledSession session = idle.pollFirst();
+                if (session == null && permits.tryAcquire()) {
+                    session = launch(browser, permits);
+                }
+                if (session == null) {
+                    session = idle.pollFirst(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (session != null && isHealthy(session)) {
+                    session.uses++;
+                    leasedSessions.put(session.driver, session);
+                    return session.driver;
+                }
+                if (session != null) {
+                    destroy(session);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        System.err.println("Driver pool saturated for " + browser + "; falling back to an unpooled session");
+        return DriverInstance.createDriver(browser, DriverInstance.getApplicationUrl());
+    }
+
+    /**
+     * Returns a session to the pool after resetting it. Sessions that were not borrowed from the pool,
+     * have reached the max-reuse count, or fail to reset are quit instead.
+     */
+    public static void release(WebDriver driver) {
+        PooledSession session = leasedSessions.remove(driver);
+        if (session == null) {
+            quitQuietly(driver);
+            return;
+        }
+
+        if (session.uses >= maxReuse() || !reset(session.driver)) {
+            destroy(session);
+            return;
+        }
+        idleSessions.get(session.browser).offerFirst(session);
+    }
+
+    /**
+     * Drops a leased session that is known to be broken (e.g. the browser crashed mid-test).
+     */
+    public static void evict(WebDriver driver) {
+        PooledSession session = leasedSessions.remove(driver);
+        if (session != null) {
+            destroy(session);
+        } else {
+            quitQuietly(driver);
+        }
+    }
+
+    /**
+     * Pre-launches up to {@code count} sessions in parallel so the first tests do not pay browser startup.
+     */
+    public static void warmUp(Browser browser, int count) {
+        BlockingDeque<PooledSession> idle = idleSessions.computeIfAbsent(browser, k -> new LinkedBlockingDeque<>());
+        Semaphore permits = sessionPermits.computeIfAbsent(browser, k -> new Semaphore(maxSize()));
+        List<Thread> launches = new ArrayList<>();
+        for (int i = 0; i < count && permits.tryAcquire(); i++) {
+            launches.add(Thread.ofVirtual().name("driver-warm-up-" + i).start(() -> {
+                PooledSession session = launch(browser, permits);
+                if (session != null) {
+                    idle.offerLast(session);
+                }
+            }));
+        }
+        for (Thread launch : launches) {
+            try {
+                launch.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Quit every idle session; leased sessions are quit by their owners on release
+    public static void shutdown() {
+        for (BlockingDeque<PooledSession> idle : idleSessions.values()) {
+            List<PooledSession> drained = new ArrayList<>();
+            idle.drainTo(drained);
+            drained.forEach(DriverPool::destroy);
+        }
+        AsyncTeardown.awaitPending(Duration.ofSeconds(30));
+    }
+
+    private static PooledSession launch(Browser browser, Semaphore permits) {
+        try {
+            WebDriver driver = DriverInstance.createDriver(browser, DriverInstance.getApplicationUrl());
+            return new PooledSession(driver, browser);
+        } catch (RuntimeException e) {
+            // Binary resolution, grid allocation and LocalSite fail with other runtime exceptions too
+            permits.release();
+            System.err.println("Failed to launch pooled " + browser + " session: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // A cheap round trip that fails fast when the browser or driver process has died
+    private static boolean isHealthy(PooledSession session) {
+        try {
+            session.driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            System.err.println("Evicting crashed " + session.browser + " session: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean reset(WebDriver driver) {
+        try {
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            for (int i = 1; i < handles.size(); i++) {
+                driver.switchTo().window(handles.get(i)).close();
+            }
+            driver.switchTo().window(handles.get(0));
+
+            try {
+                ((JavascriptExecutor) driver).executeScript("window.localStorage.clear(); window.sessionStorage.clear();");
+            } catch (WebDriverException e) {
+                // Storage is not reachable on about:blank or data: pages; nothing to clear there
+            }
+            driver.manage().deleteAllCookies();
+            driver.get(DriverInstance.getApplicationUrl());
+            return true;
+        } catch (WebDriverException e) {
+            System.err.println("Failed to reset pooled session: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void destroy(PooledSession session) {
+        quitQuietly(session.driver);
+        Semaphore permits = sessionPermits.get(session.browser);
+        if (permits != null) {
+            permits.release();
+        }
+    }
+
+    // Quit runs off the test thread; see AsyncTeardown
+    private static void quitQuietly(WebDriver driver) {
+        RequestBlocker.detach(driver);
+        AsyncTeardown.quit(driver);
+    }
+
+    private static int maxSize() {
+        return Config.get().getInt("driverPool.maxSize", Runtime.getRuntime().availableProcessors());
+    }
+
+    private static int maxReuse() {
+        return Config.get().getInt("driverPool.maxReuse", 20);
+    }
+
+    private static Duration borrowTimeout() {
+        return Config.get().getDuration("driverPool.borrowTimeout", Duration.ofSeconds(30));
+    }
+}
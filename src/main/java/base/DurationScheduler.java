@@ -0,0 +1,165 @@
+package base;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import org.openqa.selenium.json.Json;
+import org.testng.IAlterSuiteListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+/**
+ * Orders test methods longest-first from recorded durations and, with shard.total > 1, keeps only
+ * this shard's part of a longest-processing-time split so CI jobs or machines get balanced runtimes.
+ * Each Maven run is one shard; surefire forks within a run are not split.
+ * Suites without a parallel mode are switched to parallel methods with schedule.threads threads;
+ * that mode runs @BeforeMethod, the test and @AfterMethod on one thread, which is what the
+ * ThreadLocal driver in DriverInstance relies on.
+ * Register it through surefire's listener property (or SuiteBuilder) so the suite can still be altered.
+ */
+public class DurationScheduler implements IAlterSuiteListener, IMethodInterceptor, ITestListener, ISuiteListener {
+
+    private final TestDurations durations;
+    private final int threads;
+    private final int shardIndex;
+    private final int shardTotal;
+    private final long fallbackMillis;
+
+    private final Map<String, Long> predicted = new ConcurrentHashMap<>();
+    private final AtomicLong predictedMakespan = new AtomicLong();
+    private final LongAccumulator firstStart = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator lastEnd = new LongAccumulator(Math::max, 0);
+
+    public DurationScheduler() {
+        Config config = Config.get();
+        durations = new TestDurations(Paths.get(config.getString("schedule.durationsFile", "test-durations.properties")));
+        threads = Math.max(1, config.getInt("schedule.threads", 1));
+        shardIndex = config.getInt("shard.index", 0);
+        shardTotal = Math.max(1, config.getInt("shard.total", 1));
+        fallbackMillis = config.getDuration("schedule.defaultDuration", Duration.ofSeconds(30)).toMillis();
+        if (shardIndex < 0 || shardIndex >= shardTotal) {
+            throw new IllegalStateException("shard.index must be between 0 and " + (shardTotal - 1) + " but was " + shardIndex);
+        }
+    }
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        for (XmlSuite suite : suites) {
+            if (!suite.getParallel().isParallel() && threads > 1) {
+                suite.setParallel(XmlSuite.ParallelMode.METHODS);
+                suite.setThreadCount(threads);
+            }
+        }
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        List<IMethodInstance> ordered = new ArrayList<>(methods);
+        ordered.sort(Comparator.comparingLong(this::predict).reversed()
+                .thenComparing(method -> method.getMethod().getQualifiedName()));
+
+        List<IMethodInstance> scheduled = shardTotal > 1 ? shard(ordered) : ordered;
+
+        XmlSuite suite = context.getSuite().getXmlSuite();
+        int lanes = suite.getParallel().isParallel() ? Math.max(1, suite.getThreadCount()) : 1;
+        long makespan = longestLane(scheduled, lanes);
+        predictedMakespan.addAndGet(makespan);
+        AuditLog.info(String.format("[Scheduler] %s: %d of %d methods on shard %d/%d, predicted makespan %d ms on %d threads",
+                context.getName(), scheduled.size(), methods.size(), shardIndex, shardTotal, makespan, lanes));
+        return scheduled;
+    }
+
+    // Greedy LPT: each method, longest first, goes to the shard with the least expected runtime so far
+    private List<IMethodInstance> shard(List<IMethodInstance> ordered) {
+        long[] load = new long[shardTotal];
+        List<IMethodInstance> mine = new ArrayList<>();
+        for (IMethodInstance method : ordered) {
+            int target = 0;
+            for (int i = 1; i < shardTotal; i++) {
+                if (load[i] < load[target]) target = i;
+            }
+            load[target] += predict(method);
+            if (target == shardIndex) mine.add(method);
+        }
+        return mine;
+    }
+
+    private long longestLane(List<IMethodInstance> scheduled, int lanes) {
+        PriorityQueue<Long> finish = new PriorityQueue<>();
+        for (int i = 0; i < lanes; i++) finish.add(0L);
+        long makespan = 0;
+        for (IMethodInstance method : scheduled) {
+            long end = finish.poll() + predict(method);
+            makespan = Math.max(makespan, end);
+            finish.add(end);
+        }
+        return makespan;
+    }
+
+    private long predict(IMethodInstance method) {
+        String name = method.getMethod().getQualifiedName();
+        return predicted.computeIfAbsent(name, test -> durations.predict(test, fallbackMillis));
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        record(result);
+    }
+
+    // Skipped tests say nothing about how long the method takes
+    private void record(ITestResult result) {
+        durations.record(result.getMethod().getQualifiedName(), result.getEndMillis() - result.getStartMillis());
+        firstStart.accumulate(result.getStartMillis());
+        lastEnd.accumulate(result.getEndMillis());
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        long actual = lastEnd.get() == 0 ? 0 : lastEnd.get() - firstStart.get();
+        AuditLog.info(String.format("[Scheduler] %s shard %d/%d: predicted makespan %d ms, actual %d ms",
+                suite.getName(), shardIndex, shardTotal, predictedMakespan.get(), actual));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("suite", suite.getName());
+        report.put("shardIndex", shardIndex);
+        report.put("shardTotal", shardTotal);
+        report.put("threads", suite.getXmlSuite().getParallel().isParallel() ? suite.getXmlSuite().getThreadCount() : 1);
+        report.put("predictedMakespanMs", predictedMakespan.get());
+        report.put("actualMakespanMs", actual);
+        Map<String, Object> tests = new LinkedHashMap<>();
+        durations.getCurrent().forEach((test, millis) -> tests.put(test, Map.of("predictedMs", predicted.getOrDefault(test, 0L), "actualMs", millis)));
+        report.put("tests", tests);
+
+        try {
+            Path file = Paths.get(Config.get().getString("schedule.reportDir", "target/schedule"), "schedule-shard-" + shardIndex + ".json");
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, new Json().toJson(report));
+            durations.save();
+        } catch (IOException e) {
+            System.err.println("Failed to write schedule report: " + e.getMessage());
+        }
+    }
+}
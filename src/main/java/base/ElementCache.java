@@ -0,0 +1,150 @@
+package base;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Opt-in, per-thread cache of resolved WebElement handles keyed by By, scoped to one page object.
+ * A page object opts in with {@code ElementCache.use(MyPage.class)}; it is active when
+ * elementCache.enabled or elementCache.<PageClass>.enabled is true.
+ * Entries are dropped on StaleElementReferenceException (handled in BaseClass), on waitForPageLoad,
+ * and, with elementCache.verifyNavigation=true, when location.href or performance.timeOrigin differ
+ * from when they were cached. That is checked with one script call on the first lookup after an
+ * interaction that may navigate (click, typing, select), not on every lookup.
+ * Without verification those interactions clear the cache instead.
+ */
+public class ElementCache {
+
+    static {
+        Config.addValidator(config -> {
+            config.getBoolean("elementCache.enabled", false);
+            config.getBoolean("elementCache.verifyNavigation", true);
+        });
+    }
+
+    private static final class PageCache {
+        private Class<?> page;
+        private boolean active;
+        private String navigation;
+        private boolean mayHaveNavigated;
+        private final Map<By, WebElement> elements = new HashMap<>();
+    }
+
+    private static final ThreadLocal<PageCache> cache = ThreadLocal.withInitial(PageCache::new);
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder staleRefreshes = new LongAdder();
+    private static final LongAdder navigationResets = new LongAdder();
+
+    /**
+     * Scopes this thread's cache to the given page object, clearing it if another page was active.
+     */
+    public static void use(Class<?> page) {
+        PageCache state = cache.get();
+        if (state.page != page) {
+            state.elements.clear();
+            state.navigation = null;
+            state.page = page;
+        }
+        Config config = Config.get();
+        state.active = config.getBoolean("elementCache." + page.getSimpleName() + ".enabled",
+                config.getBoolean("elementCache.enabled", false));
+    }
+
+    static WebElement get(By locator) {
+        PageCache state = cache.get();
+        if (!state.active) return null;
+
+        if (state.mayHaveNavigated && verifyNavigation()) {
+            state.mayHaveNavigated = false;
+            if (state.elements.isEmpty()) {
+                state.navigation = null;
+            } else {
+                String navigation = currentNavigation();
+                if (!navigation.equals(state.navigation)) {
+                    navigationResets.increment();
+                    state.elements.clear();
+                    state.navigation = navigation;
+                }
+            }
+        }
+        WebElement element = state.elements.get(locator);
+        if (element != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return element;
+    }
+
+    static void put(By locator, WebElement element) {
+        PageCache state = cache.get();
+        if (!state.active) return;
+        if (state.navigation == null && verifyNavigation()) {
+            state.navigation = currentNavigation();
+        }
+        state.elements.put(locator, element);
+    }
+
+    static void stale(By locator) {
+        staleRefreshes.increment();
+        cache.get().elements.remove(locator);
+    }
+
+    // After an interaction that may have navigated; verified on the next lookup, or cleared right away
+    static void afterInteraction() {
+        if (verifyNavigation()) {
+            cache.get().mayHaveNavigated = true;
+        } else {
+            invalidate();
+        }
+    }
+
+    public static void invalidate() {
+        PageCache state = cache.get();
+        state.elements.clear();
+        state.navigation = null;
+        state.mayHaveNavigated = false;
+    }
+
+    // Called when the driver is released so the next test starts without handles from the old session
+    public static void clear() {
+        cache.remove();
+    }
+
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    public static long getStaleRefreshes() {
+        return staleRefreshes.sum();
+    }
+
+    public static long getNavigationResets() {
+        return navigationResets.sum();
+    }
+
+    public static String summary() {
+        return String.format("hits=%d misses=%d staleRefreshes=%d navigationResets=%d",
+                getHits(), getMisses(), getStaleRefreshes(), getNavigationResets());
+    }
+
+    private static boolean verifyNavigation() {
+        return Config.get().getBoolean("elementCache.verifyNavigation", true);
+    }
+
+    private static String currentNavigation() {
+        return String.valueOf(((JavascriptExecutor) DriverInstance.getDriver())
+                .executeScript("return location.href + '|' + performance.timeOrigin;"));
+    }
+}
@@ -0,0 +1,280 @@
+package base;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.SAXException;
+
+/**
+ * Lazily streams the data rows of one .xlsx sheet without building the XSSFWorkbook DOM.
+ * The sheet XML is pulled row by row, so only the shared strings, styles and the current row
+ * are held in memory. The first row is read as the header; the iterator yields every following
+ * row with the same cell-type mapping as {@code DataGenerators.getCellValue}.
+ * The underlying package is closed once the last row has been read or {@link #close()} is called.
+ */
+public class ExcelRowIterator implements Iterator<Object[]>, Closeable {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final OPCPackage pkg;
+    private final InputStream sheetStream;
+    private final XMLStreamReader xml;
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final StylesTable styles;
+    private final List<String> header;
+    private final int[] selectedColumns;
+
+    private Object[] nextRow;
+    private boolean closed;
+
+    /**
+     * Opens the sheet and reads its header row.
+     *
+     * @param filePath  Absolute or relative path to the Excel file.
+     * @param sheetName Name of the sheet from which data should be read.
+     * @param columns   Header names to return, in this order; all columns when empty.
+     * @throws IOException If the file cannot be opened or the sheet or a column does not exist.
+     */
+    public ExcelRowIterator(String filePath, String sheetName, String... columns) throws IOException {
+        OPCPackage opened = null;
+        InputStream stream = null;
+        try {
+            opened = OPCPackage.open(new File(filePath), PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(opened);
+            sharedStrings = new ReadOnlySharedStringsTable(opened);
+            styles = reader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = reader.getSheetIterator();
+            while (sheets.hasNext()) {
+                InputStream candidate = sheets.next();
+                if (sheets.getSheetName().equals(sheetName)) {
+                    stream = candidate;
+                    break;
+                }
+                candidate.close();
+            }
+            if (stream == null) {
+                throw new IOException("Sheet '" + sheetName + "' not found in " + filePath);
+            }
+
+            xml = XML_INPUT_FACTORY.createXMLStreamReader(stream);
+            pkg = opened;
+            sheetStream = stream;
+
+            List<Object> headerCells = readRow();
+            header = new ArrayList<>();
+            if (headerCells != null) {
+                for (Object cell : headerCells) {
+                    header.add(cell == null ? "" : cell.toString().trim());
+                }
+            }
+            selectedColumns = resolveColumns(columns);
+        } catch (OpenXML4JException | SAXException | XMLStreamException e) {
+            closeQuietly(stream, opened);
+            throw new IOException("Failed to open sheet '" + sheetName + "' in " + filePath, e);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(stream, opened);
+            throw e;
+        }
+    }
+
+    public List<String> getHeader() {
+        return List.copyOf(header);
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        if (nextRow != null) return true;
+        if (closed) return false;
+        try {
+            List<Object> cells = readRow();
+            if (cells == null) {
+                close();
+                return false;
+            }
+            nextRow = project(cells);
+            return true;
+        } catch (XMLStreamException e) {
+            closeQuietly(sheetStream, pkg);
+            closed = true;
+            throw new UncheckedIOException(new IOException("Failed to read sheet row", e));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized Object[] next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Object[] row = nextRow;
+        nextRow = null;
+        return row;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            // Closing the stream and package below releases the file either way
+        }
+        sheetStream.close();
+        pkg.revert();
+    }
+
+    private int[] resolveColumns(String... columns) throws IOException {
+        if (columns == null || columns.length == 0) {
+            int[] all = new int[header.size()];
+            for (int i = 0; i < all.length; i++) all[i] = i;
+            return all;
+        }
+        int[] indexes = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            indexes[i] = header.indexOf(columns[i]);
+            if (indexes[i] < 0) {
+                throw new IOException("Column '" + columns[i] + "' not found in header " + header);
+            }
+        }
+        return indexes;
+    }
+
+    private Object[] project(List<Object> cells) {
+        Object[] row = new Object[selectedColumns.length];
+        for (int i = 0; i < selectedColumns.length; i++) {
+            int column = selectedColumns[i];
+            row[i] = column < cells.size() ? cells.get(column) : null;
+        }
+        return row;
+    }
+
+    /**
+     * Advances to the next {@code <row>} element and returns its cells indexed by column,
+     * or null at the end of the sheet data.
+     */
+    private List<Object> readRow() throws XMLStreamException {
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "row".equals(xml.getLocalName())) {
+                return readCells();
+            }
+            if (event == XMLStreamConstants.END_ELEMENT && "sheetData".equals(xml.getLocalName())) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private List<Object> readCells() throws XMLStreamException {
+        List<Object> cells = new ArrayList<>();
+        int position = 0;
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xml.getLocalName())) {
+                return cells;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(xml.getLocalName())) {
+                String ref = xml.getAttributeValue(null, "r");
+                int column = ref != null ? new CellReference(ref).getCol() : position;
+                Object value = readCell(xml.getAttributeValue(null, "t"), xml.getAttributeValue(null, "s"));
+                while (cells.size() <= column) cells.add(null);
+                cells.set(column, value);
+                position = column + 1;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Mirrors {@code DataGenerators.getCellValue}: strings as String, blank and error cells as null,
+     * booleans as Boolean, date-formatted numbers as Date, other numbers as Double and formulas as
+     * their formula text. Cells that share a formula defined elsewhere fall back to their cached value.
+     */
+    private Object readCell(String type, String styleIndex) throws XMLStreamException {
+        String value = null;
+        String formula = null;
+        StringBuilder inline = null;
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "c".equals(xml.getLocalName())) break;
+            if (event != XMLStreamConstants.START_ELEMENT) continue;
+
+            switch (xml.getLocalName()) {
+                case "v" -> value = xml.getElementText();
+                case "f" -> {
+                    String text = xml.getElementText();
+                    if (!text.isEmpty()) formula = text;
+                }
+                case "t" -> {
+                    if (inline == null) inline = new StringBuilder();
+                    inline.append(xml.getElementText());
+                }
+                default -> {
+                    // Rich-text run properties and extensions carry no cell value
+                }
+            }
+        }
+
+        if (formula != null) return formula;
+        if ("inlineStr".equals(type)) return inline == null ? "" : inline.toString();
+        if (value == null || value.isEmpty()) return null;
+
+        return switch (type == null ? "n" : type) {
+            case "s" -> sharedStrings.getItemAt(Integer.parseInt(value)).getString();
+            case "str" -> value;
+            case "b" -> "1".equals(value);
+            case "e" -> null;
+            default -> numericValue(value, styleIndex);
+        };
+    }
+
+    private Object numericValue(String value, String styleIndex) {
+        double number = Double.parseDouble(value);
+        if (styleIndex != null && styles != null) {
+            XSSFCellStyle style = styles.getStyleAt(Integer.parseInt(styleIndex));
+            if (style != null
+                    && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString())
+                    && DateUtil.isValidExcelDate(number)) {
+                return DateUtil.getJavaDate(number);
+            }
+        }
+        return number;
+    }
+
+    private static void closeQuietly(InputStream stream, OPCPackage pkg) {
+        try {
+            if (stream != null) stream.close();
+        } catch (IOException e) {
+            // Best effort; the package revert below releases the file handle
+        }
+        if (pkg != null) pkg.revert();
+    }
+}
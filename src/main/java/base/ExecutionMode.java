@@ -0,0 +1,19 @@
+package base;
+
+/**
+ * Where DriverInstance creates browser sessions, as named by the execution.mode config key.
+ */
+public enum ExecutionMode {
+    // ChromeDriver/FirefoxDriver on this machine, binaries from DriverBinaries
+    LOCAL,
+    // RemoteWebDriver against grid.urls (or LocalGrid), slots handed out by GridAllocator
+    GRID;
+
+    static {
+        Config.addValidator(config -> config.getEnum("execution.mode", ExecutionMode.class, LOCAL));
+    }
+
+    public static ExecutionMode current() {
+        return Config.get().getEnum("execution.mode", ExecutionMode.class, LOCAL);
+    }
+}
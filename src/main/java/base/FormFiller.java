@@ -0,0 +1,95 @@
+package base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Sets several form fields in a single executeScript call. Text inputs get their value through the
+ * native setter followed by input/change events, selects match by option value then visible text,
+ * and radios/checkboxes are clicked when their state has to change.
+ * Locators are translated into in-page lookups from By.toString(); strategies that have no
+ * in-page equivalent (link text) are resolved with findElement first and passed in as elements.
+ */
+final class FormFiller {
+
+    private static final String FILL_JS =
+            "var fields = arguments[0], unresolved = [];"
+            + "function find(how, what) {"
+            + "  if (typeof what !== 'string') return what;"
+            + "  switch (how) {"
+            + "    case 'id': return document.getElementById(what);"
+            + "    case 'name': return document.getElementsByName(what)[0];"
+            + "    case 'cssSelector': return document.querySelector(what);"
+            + "    case 'className': return document.getElementsByClassName(what)[0];"
+            + "    case 'tagName': return document.getElementsByTagName(what)[0];"
+            + "    case 'xpath': return document.evaluate(what, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "  }"
+            + "  return null;"
+            + "}"
+            + "function fire(el, type) { el.dispatchEvent(new Event(type, {bubbles: true})); }"
+            + "for (var i = 0; i < fields.length; i++) {"
+            + "  var el = find(fields[i][0], fields[i][1]), value = fields[i][2];"
+            + "  if (!el || el.disabled) { unresolved.push(i); continue; }"
+            + "  var tag = el.tagName.toLowerCase(), type = (el.type || '').toLowerCase();"
+            + "  if (tag === 'select') {"
+            + "    var option = Array.prototype.find.call(el.options, function(o) { return o.value === value; })"
+            + "        || Array.prototype.find.call(el.options, function(o) { return o.text.trim() === value; });"
+            + "    if (!option) { unresolved.push(i); continue; }"
+            + "    el.value = option.value; fire(el, 'input'); fire(el, 'change');"
+            + "  } else if (type === 'radio' || type === 'checkbox') {"
+            + "    var wanted = !/^(false|off|no|0)?$/i.test(value);"
+            + "    if (el.checked !== wanted) el.click();"
+            + "  } else {"
+            + "    var proto = tag === 'textarea' ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;"
+            + "    Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, value);"
+            + "    fire(el, 'input'); fire(el, 'change');"
+            + "  }"
+            + "}"
+            + "return unresolved;";
+
+    private FormFiller() {
+    }
+
+    /**
+     * Applies all fields in one round trip.
+     *
+     * @return Indexes of fields that could not be found or set, for the caller to retry natively.
+     */
+    static List<Integer> apply(WebDriver driver, List<Map.Entry<By, String>> fields) {
+        List<List<Object>> args = new ArrayList<>();
+        for (Map.Entry<By, String> field : fields) {
+            args.add(List.of(strategy(field.getKey()), selector(driver, field.getKey()), field.getValue()));
+        }
+        Object result = ((JavascriptExecutor) driver).executeScript(FILL_JS, args);
+
+        List<Integer> unresolved = new ArrayList<>();
+        if (result instanceof List<?> indexes) {
+            for (Object index : indexes) {
+                unresolved.add(((Number) index).intValue());
+            }
+        }
+        return unresolved;
+    }
+
+    // "By.id: password" -> "id"
+    private static String strategy(By locator) {
+        String text = locator.toString();
+        int colon = text.indexOf(':');
+        return colon > 3 && text.startsWith("By.") ? text.substring(3, colon) : "";
+    }
+
+    private static Object selector(WebDriver driver, By locator) {
+        String text = locator.toString();
+        switch (strategy(locator)) {
+            case "id", "name", "cssSelector", "className", "tagName", "xpath":
+                return text.substring(text.indexOf(':') + 1).trim();
+            default:
+                return driver.findElement(locator);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package base;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Load-aware session placement for execution.mode=GRID. Before each new session the allocator reads
+ * /status of every grid in grid.urls (cached for grid.statusInterval), counts the free slots for the
+ * browser on nodes that are UP and sends the request to the grid with the most free capacity.
+ * When every grid is saturated the test waits here, backing off from grid.queueBackoff up to
+ * grid.maxBackoff, instead of piling requests into the grid's own queue where they end up as
+ * session-creation timeouts; it gives up after grid.queueTimeout.
+ * Sessions per node and the time tests spent queued are available from {@link #report()}.
+ * With driverPool.enabled=true the pool's driverPool.maxSize still caps the sessions one JVM holds,
+ * so raise it to this JVM's share of the grid slots to use the whole grid.
+ * localSite.enabled=true only works with grids on this machine (localGrid or a loopback grid.urls entry).
+ */
+public class GridAllocator {
+
+    static {
+        Config.addValidator(config -> {
+            config.getDuration("grid.statusInterval", Duration.ZERO);
+            config.getDuration("grid.queueTimeout", Duration.ZERO);
+            config.getDuration("grid.queueBackoff", Duration.ZERO);
+            config.getDuration("grid.maxBackoff", Duration.ZERO);
+        });
+    }
+
+    private static final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private static final Object LOCK = new Object();
+
+    private static final class Grid {
+        private final URL url;
+        private List<Map<String, Object>> nodes = List.of();
+        private long readAt;
+        // Slots handed out whose session is not created yet, so /status does not show them busy
+        private int reserved;
+        private String error;
+
+        private Grid(URL url) {
+            this.url = url;
+        }
+    }
+
+    private static List<Grid> grids;
+
+    private static final LatencyHistogram queueWait = new LatencyHistogram();
+    private static final Map<String, AtomicInteger> sessionsByNode = new ConcurrentHashMap<>();
+    private static final AtomicInteger queued = new AtomicInteger();
+    private static final LongAccumulator maxQueued = new LongAccumulator(Math::max, 0);
+    private static final AtomicLong queueTimeouts = new AtomicLong();
+
+    /**
+     * Waits for a free slot and creates a session on the least loaded grid.
+     *
+     * @throws SessionNotCreatedException If no slot frees up within grid.queueTimeout.
+     */
+    public static WebDriver createSession(Browser browser, Capabilities options) {
+        long start = System.nanoTime();
+        Grid grid = acquire(browser);
+        queueWait.recordNanos(System.nanoTime() - start);
+
+        RemoteWebDriver driver;
+        try {
+            driver = new RemoteWebDriver(grid.url, options);
+        } finally {
+            synchronized (LOCK) {
+                grid.reserved--;
+                grid.readAt = 0;
+            }
+        }
+        sessionsByNode.computeIfAbsent(nodeOf(grid, driver.getSessionId().toString()), k -> new AtomicInteger()).incrementAndGet();
+        // Adds HasDevTools where the grid exposes se:cdp, so RequestBlocker and PageReadiness keep working
+        return new Augmenter().augment(driver);
+    }
+
+    private static Grid acquire(Browser browser) {
+        Config config = Config.get();
+        Duration timeout = config.getDuration("grid.queueTimeout", Duration.ofMinutes(10));
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long backoff = config.getDuration("grid.queueBackoff", Duration.ofMillis(250)).toMillis();
+        long maxBackoff = config.getDuration("grid.maxBackoff", Duration.ofSeconds(5)).toMillis();
+        boolean waiting = false;
+        try {
+            while (true) {
+                synchronized (LOCK) {
+                    Grid best = null;
+                    int bestFree = 0;
+                    for (Grid grid : grids()) {
+                        refreshIfStale(grid);
+                        int free = freeSlots(grid.nodes, browser) - grid.reserved;
+                        if (free > bestFree) {
+                            best = grid;
+                            bestFree = free;
+                        }
+                    }
+                    if (best != null) {
+                        best.reserved++;
+                        return best;
+                    }
+                }
+                if (!waiting) {
+                    waiting = true;
+                    maxQueued.accumulate(queued.incrementAndGet());
+                }
+                if (System.nanoTime() >= deadline) {
+                    queueTimeouts.incrementAndGet();
+                    throw new SessionNotCreatedException("No free " + browser + " slot on " + urls() + " within " + timeout);
+                }
+                // Jitter keeps queued threads from polling in lockstep
+                Thread.sleep(backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1));
+                backoff = Math.min(backoff * 2, maxBackoff);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SessionNotCreatedException("Interrupted while queued for a " + browser + " slot");
+        } finally {
+            if (waiting) {
+                queued.decrementAndGet();
+            }
+        }
+    }
+
+    // Called with LOCK held, which also keeps queued threads from fetching /status all at once
+    private static void refreshIfStale(Grid grid) {
+        long interval = Config.get().getDuration("grid.statusInterval", Duration.ofSeconds(1)).toNanos();
+        if (grid.readAt != 0 && System.nanoTime() - grid.readAt < interval) return;
+        try {
+            grid.nodes = nodes(status(grid.url));
+            if (grid.error != null) {
+                System.err.println("[Grid] " + grid.url + " is reachable again");
+                grid.error = null;
+            }
+        } catch (IOException | RuntimeException e) {
+            grid.nodes = List.of();
+            if (grid.error == null) {
+                System.err.println("[Grid] " + grid.url + " status unavailable, not placing sessions there: " + e.getMessage());
+            }
+            grid.error = String.valueOf(e.getMessage());
+        }
+        grid.readAt = System.nanoTime();
+    }
+
+    /**
+     * Free slots for the browser on UP nodes, capped by each node's maxSessions.
+     */
+    static int freeSlots(List<Map<String, Object>> nodes, Browser browser) {
+        int free = 0;
+        for (Map<String, Object> node : nodes) {
+            if (!"UP".equals(node.get("availability"))) continue;
+            List<?> slots = node.get("slots") instanceof List<?> list ? list : List.of();
+            int busy = 0;
+            int matching = 0;
+            for (Object entry : slots) {
+                if (!(entry instanceof Map<?, ?> slot)) continue;
+                if (slot.get("session") != null) {
+                    busy++;
+                } else if (slot.get("stereotype") instanceof Map<?, ?> stereotype
+                        && browser.name().equalsIgnoreCase(String.valueOf(stereotype.get("browserName")))) {
+                    matching++;
+                }
+            }
+            int maxSessions = node.get("maxSessions") instanceof Number number ? number.intValue() : slots.size();
+            free += Math.max(0, Math.min(matching, maxSessions - busy));
+        }
+        return free;
+    }
+
+    // Fresh /status, which also lets the next allocation see the new session as busy
+    private static String nodeOf(Grid grid, String sessionId) {
+        synchronized (LOCK) {
+            refreshIfStale(grid);
+            for (Map<String, Object> node : grid.nodes) {
+                if (!(node.get("slots") instanceof List<?> slots)) continue;
+                for (Object entry : slots) {
+                    if (entry instanceof Map<?, ?> slot && slot.get("session") instanceof Map<?, ?> session
+                            && sessionId.equals(session.get("sessionId"))) {
+                        return String.valueOf(node.get("uri"));
+                    }
+                }
+            }
+        }
+        return grid.url + " (node unknown)";
+    }
+
+    /**
+     * The "value" object of a grid's /status response.
+     */
+    static Map<String, Object> status(URL grid) throws IOException {
+        String base = grid.toString().replaceAll("/+$", "");
+        HttpRequest request = HttpRequest.newBuilder(URI.create(base + "/status")).timeout(Duration.ofSeconds(5)).GET().build();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode() + " from " + base + "/status");
+            }
+            Map<String, Object> body = new Json().toType(response.body(), Json.MAP_TYPE);
+            Object value = body.get("value");
+            if (!(value instanceof Map<?, ?>)) {
+                throw new IOException("No status value from " + base + "/status");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> status = (Map<String, Object>) value;
+            return status;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted reading " + base + "/status", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> nodes(Map<String, Object> status) {
+        List<Map<String, Object>> nodes = new ArrayList<>();
+        if (status.get("nodes") instanceof List<?> list) {
+            for (Object node : list) {
+                if (node instanceof Map<?, ?>) nodes.add((Map<String, Object>) node);
+            }
+        }
+        return nodes;
+    }
+
+    // LocalGrid when localGrid.enabled=true, otherwise the comma-separated grid.urls
+    private static List<Grid> grids() {
+        if (grids == null) {
+            List<Grid> configured = new ArrayList<>();
+            for (String url : urls()) {
+                try {
+                    configured.add(new Grid(new URI(url).toURL()));
+                } catch (URISyntaxException | MalformedURLException | IllegalArgumentException e) {
+                    throw new IllegalStateException("Invalid grid URL in grid.urls: " + url, e);
+                }
+            }
+            if (configured.isEmpty()) {
+                throw new IllegalStateException("execution.mode=GRID needs grid.urls or localGrid.enabled=true");
+            }
+            // LocalSite binds to loopback, which a browser on a remote node would resolve to itself
+            if (LocalSite.isEnabled()) {
+                for (Grid grid : configured) {
+                    if (!isLoopback(grid.url)) {
+                        throw new IllegalStateException("localSite.enabled=true serves on 127.0.0.1, which nodes of "
+                                + grid.url + " cannot reach; use localGrid.enabled=true or disable localSite.enabled");
+                    }
+                }
+            }
+            grids = configured;
+        }
+        return grids;
+    }
+
+    private static boolean isLoopback(URL url) {
+        try {
+            return InetAddress.getByName(url.getHost()).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    private static List<String> urls() {
+        if (LocalGrid.isEnabled()) {
+            return List.of(LocalGrid.start());
+        }
+        List<String> urls = new ArrayList<>();
+        for (String url : Config.get().getString("grid.urls", "").split(",")) {
+            if (!url.isBlank()) urls.add(url.trim());
+        }
+        return urls;
+    }
+
+    /**
+     * Sessions created per node, queue wait percentiles and how many tests were queued at most.
+     */
+    public static Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        Map<String, Integer> nodes = new TreeMap<>();
+        sessionsByNode.forEach((node, count) -> nodes.put(node, count.get()));
+        report.put("sessions", nodes.values().stream().mapToInt(Integer::intValue).sum());
+        report.put("sessionsByNode", nodes);
+        report.put("queueWait", queueWait.summary());
+        report.put("maxQueued", maxQueued.get());
+        report.put("queueTimeouts", queueTimeouts.get());
+        return report;
+    }
+}
@@ -0,0 +1,133 @@
+package base;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selenium Grid standalone in a child process, for running GRID mode on a workstation.
+ * localGrid.jar points at a selenium-server jar, localGrid.maxSessions sets the slot count
+ * (overriding Grid's one-per-CPU default) and the server output goes to localGrid.log.
+ * Enabled with localGrid.enabled=true, which GridAllocator then uses instead of grid.urls.
+ * Can also be started on its own: java -cp ... base.LocalGrid
+ */
+public class LocalGrid {
+
+    static {
+        Config.addValidator(config -> {
+            config.getBoolean("localGrid.enabled", false);
+            config.getInt("localGrid.port", 0);
+            config.getInt("localGrid.maxSessions", 1);
+            config.getDuration("localGrid.startTimeout", Duration.ZERO);
+        });
+    }
+
+    private static Process process;
+    private static String url;
+
+    public static boolean isEnabled() {
+        return Config.get().getBoolean("localGrid.enabled", false);
+    }
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(LocalGrid::stop, "local-grid-shutdown"));
+    }
+
+    /**
+     * Starts the grid on first use and returns its URL once /status reports ready.
+     */
+    public static synchronized String start() {
+        if (process != null && process.isAlive()) return url;
+
+        Config config = Config.get();
+        String jar = config.getString("localGrid.jar", "");
+        if (jar.isEmpty() || !Files.isRegularFile(Paths.get(jar))) {
+            throw new IllegalStateException("localGrid.jar must point at a selenium-server jar, but was '" + jar + "'");
+        }
+        int port = config.getInt("localGrid.port", 4444);
+        int slots = Math.max(1, config.getInt("localGrid.maxSessions", 4));
+        Path log = Paths.get(config.getString("localGrid.log", "target/local-grid.log"));
+
+        List<String> command = List.of(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString(), "-jar", jar, "standalone",
+                "--port", String.valueOf(port),
+                "--max-sessions", String.valueOf(slots),
+                "--override-max-sessions", "true");
+        try {
+            if (log.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(log.toAbsolutePath().getParent());
+            }
+            process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(log.toFile()))
+                    .start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start local grid", e);
+        }
+        url = "http://127.0.0.1:" + port;
+        awaitReady(config.getDuration("localGrid.startTimeout", Duration.ofSeconds(60)), log);
+        AuditLog.info("[Local Grid] " + slots + " slots at " + url + ", log in " + log);
+        return url;
+    }
+
+    private static void awaitReady(Duration timeout, Path log) {
+        URL statusUrl = toUrl(url);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Local grid exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                Map<String, Object> status = GridAllocator.status(statusUrl);
+                if (Boolean.TRUE.equals(status.get("ready"))) return;
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            try {
+                Thread.sleep(250);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        stop();
+        throw new IllegalStateException("Local grid not ready within " + timeout + ", see " + log);
+    }
+
+    public static synchronized void stop() {
+        if (process == null) return;
+        process.descendants().forEach(ProcessHandle::destroy);
+        process.destroy();
+        try {
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+        process = null;
+    }
+
+    private static URL toUrl(String value) {
+        try {
+            return URI.create(value).toURL();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        start();
+        AuditLog.info("[Local Grid] Running, stop with Ctrl+C");
+        process.waitFor();
+    }
+}
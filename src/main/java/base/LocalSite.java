@@ -0,0 +1,298 @@
+package base;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded stand-in for the automationexercise.com pages used by the page objects
+ * (nav bar, login and signup forms, account information form). Snapshots live under
+ * resources/site; login and signup keep their accounts in memory for the lifetime of the JVM.
+ * Enabled with localSite.enabled=true, which points DriverInstance at it instead of applicationLoginURL.
+ * localSite.latency and localSite.bandwidthKbps inject delay to benchmark the framework in isolation.
+ */
+public class LocalSite {
+
+    static {
+        Config.addValidator(config -> {
+            config.getBoolean("localSite.enabled", false);
+            config.getInt("localSite.port", 0);
+            config.getDuration("localSite.latency", Duration.ZERO);
+            config.getInt("localSite.bandwidthKbps", 0);
+        });
+    }
+
+    private static final String SITE_RESOURCES = "site/";
+
+    private static HttpServer server;
+    private static String baseUrl;
+
+    private static final Map<String, String[]> accounts = new ConcurrentHashMap<>();
+    private static final Map<String, String> sessions = new ConcurrentHashMap<>();
+    private static final Map<String, String> templates = new ConcurrentHashMap<>();
+
+    private static Duration latency = Duration.ZERO;
+    private static int bandwidthKbps;
+
+    public static boolean isEnabled() {
+        return Config.get().getBoolean("localSite.enabled", false);
+    }
+
+    // The HTTP dispatcher thread is not a daemon, so the server is stopped explicitly at suite end
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(LocalSite::stop, "local-site-shutdown"));
+    }
+
+    /**
+     * Starts the server on first use and returns its base URL, e.g. http://127.0.0.1:54321/.
+     */
+    public static synchronized String start() {
+        if (server != null) return baseUrl;
+
+        Config config = Config.get();
+        latency = config.getDuration("localSite.latency", Duration.ZERO);
+        bandwidthKbps = config.getInt("localSite.bandwidthKbps", 0);
+        seedAccounts(config.getString("localSite.seedAccounts", ""));
+
+        try {
+            InetAddress loopback = InetAddress.getLoopbackAddress();
+            server = HttpServer.create(new InetSocketAddress(loopback, config.getInt("localSite.port", 0)), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start local site", e);
+        }
+        server.createContext("/", LocalSite::handle);
+        server.setExecutor(Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "local-site");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        baseUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+        AuditLog.info("[Local Site] Serving snapshots at " + baseUrl);
+        return baseUrl;
+    }
+
+    public static synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            boolean post = "POST".equalsIgnoreCase(exchange.getRequestMethod());
+            Map<String, String> form = post ? readForm(exchange) : Map.of();
+            String user = currentUser(exchange);
+
+            switch (path) {
+                case "/" -> respond(exchange, 200, page("Automation Exercise", "index.html", Map.of(), user));
+                case "/login" -> {
+                    if (post) {
+                        login(exchange, form);
+                    } else {
+                        respond(exchange, 200, loginPage(user, "", ""));
+                    }
+                }
+                case "/signup" -> signup(exchange, form, user);
+                case "/logout" -> {
+                    sessions.remove(sessionId(exchange));
+                    redirect(exchange, "/login");
+                }
+                default -> respond(exchange, 404, page("Not Found", "not_found.html", Map.of(), user));
+            }
+        }
+    }
+
+    private static void login(HttpExchange exchange, Map<String, String> form) throws IOException {
+        String email = form.getOrDefault("email", "");
+        String[] account = accounts.get(email.toLowerCase());
+        if (account == null || !account[1].equals(form.get("password"))) {
+            respond(exchange, 200, loginPage(null, "Your email or password is incorrect!", ""));
+            return;
+        }
+        startSession(exchange, email.toLowerCase());
+        redirect(exchange, "/");
+    }
+
+    // First POST comes from the signup form, the second from the account information form
+    private static void signup(HttpExchange exchange, Map<String, String> form, String user) throws IOException {
+        String email = form.getOrDefault("email", "").toLowerCase();
+        if (email.isEmpty()) {
+            redirect(exchange, "/login");
+            return;
+        }
+
+        if ("create_account".equals(form.get("form_type"))) {
+            accounts.put(email, new String[]{form.getOrDefault("name", ""), form.getOrDefault("password", ""),
+                    form.getOrDefault("title", ""), form.getOrDefault("days", "")});
+            startSession(exchange, email);
+            respond(exchange, 200, page("Account Created", "account_created.html", Map.of(), email));
+            return;
+        }
+
+        if (accounts.containsKey(email)) {
+            respond(exchange, 200, loginPage(user, "", "Email Address already exist!"));
+            return;
+        }
+
+        StringBuilder days = new StringBuilder();
+        for (int day = 1; day <= 31; day++) {
+            days.append("<option value=\"").append(day).append("\">").append(day).append("</option>");
+        }
+        Map<String, String> values = new HashMap<>();
+        values.put("name", escape(form.getOrDefault("name", "")));
+        values.put("email", escape(email));
+        values.put("dayOptions", days.toString());
+        respond(exchange, 200, page("Signup", "signup.html", values, user));
+    }
+
+    private static String loginPage(String user, String loginError, String signupError) {
+        return page("Signup / Login", "login.html", Map.of("loginError", loginError, "signupError", signupError), user);
+    }
+
+    private static String page(String title, String template, Map<String, String> values, String user) {
+        String content = render(template, values);
+        String authLinks;
+        String loggedInAs = "";
+        if (user != null && accounts.containsKey(user)) {
+            authLinks = "<li><a href=\"/logout\"><i class=\"fa fa-lock\"></i> Logout</a></li>"
+                    + "<li><a href=\"/delete_account\"><i class=\"fa fa-trash-o\"></i> Delete Account</a></li>";
+            loggedInAs = "<li><a><i class=\"fa fa-user\"></i> Logged in as <b>" + escape(accounts.get(user)[0]) + "</b></a></li>";
+        } else {
+            authLinks = "<li><a href=\"/login\"><i class=\"fa fa-lock\"></i> Signup / Login</a></li>";
+        }
+        return render("layout.html", Map.of("title", title, "content", content, "authLinks", authLinks, "loggedInAs", loggedInAs));
+    }
+
+    private static String render(String template, Map<String, String> values) {
+        String html = templates.computeIfAbsent(template, LocalSite::loadTemplate);
+        for (Map.Entry<String, String> value : values.entrySet()) {
+            html = html.replace("{{" + value.getKey() + "}}", value.getValue());
+        }
+        return html;
+    }
+
+    private static String loadTemplate(String name) {
+        try (InputStream is = LocalSite.class.getClassLoader().getResourceAsStream(SITE_RESOURCES + name)) {
+            if (is == null) throw new IOException(name + " not found.");
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String html) throws IOException {
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        injectLatency();
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            writeThrottled(out, body);
+        }
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        injectLatency();
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static void injectLatency() {
+        if (latency.isZero()) return;
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Writes in 1 KB chunks paced to the configured bandwidth; unthrottled when bandwidthKbps is 0
+    private static void writeThrottled(OutputStream out, byte[] body) throws IOException {
+        if (bandwidthKbps <= 0) {
+            out.write(body);
+            return;
+        }
+        int chunk = 1024;
+        long nanosPerChunk = chunk * 8L * 1_000_000L / bandwidthKbps;
+        for (int offset = 0; offset < body.length; offset += chunk) {
+            out.write(body, offset, Math.min(chunk, body.length - offset));
+            out.flush();
+            try {
+                Thread.sleep(nanosPerChunk / 1_000_000, (int) (nanosPerChunk % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static Map<String, String> readForm(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            form.put(key, value);
+        }
+        return form;
+    }
+
+    private static void startSession(HttpExchange exchange, String email) {
+        String id = UUID.randomUUID().toString();
+        sessions.put(id, email);
+        exchange.getResponseHeaders().add("Set-Cookie", "sessionid=" + id + "; Path=/; HttpOnly");
+    }
+
+    private static String currentUser(HttpExchange exchange) {
+        String id = sessionId(exchange);
+        return id == null ? null : sessions.get(id);
+    }
+
+    private static String sessionId(HttpExchange exchange) {
+        List<String> cookies = exchange.getRequestHeaders().get("Cookie");
+        if (cookies == null) return null;
+        for (String header : cookies) {
+            for (String cookie : header.split(";")) {
+                String trimmed = cookie.trim();
+                if (trimmed.startsWith("sessionid=")) {
+                    return trimmed.substring("sessionid=".length());
+                }
+            }
+        }
+        return null;
+    }
+
+    // Format: email:password:name, separated by commas
+    private static void seedAccounts(String seed) {
+        for (String entry : seed.split(",")) {
+            String[] parts = entry.trim().split(":", 3);
+            if (parts.length == 3) {
+                accounts.put(parts[0].toLowerCase(), new String[]{parts[2], parts[1], "", ""});
+            }
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
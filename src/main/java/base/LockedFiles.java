@@ -0,0 +1,90 @@
+package base;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-merge-write of files shared by parallel forks and shards on one machine. Writers serialize on
+ * a {@code <file>.lock} sidecar, re-read the file under the lock and move the new content into place,
+ * so concurrent writers never lose each other's entries and readers never see a partial file.
+ */
+final class LockedFiles {
+
+    private LockedFiles() {
+    }
+
+    /**
+     * Replaces the file with {@code merge} applied to its current content (null when it does not exist yet).
+     */
+    static void update(Path file, UnaryOperator<String> merge) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            String current = Files.exists(file) ? Files.readString(file, StandardCharsets.UTF_8) : null;
+            String merged = merge.apply(current);
+
+            // Not createTempFile: its owner-only permissions would carry over to the shared file
+            Path temp = file.resolveSibling(file.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+            Files.writeString(temp, merged, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * {@link #update} for a properties file: {@code merge} gets the current entries (empty when the file
+     * does not exist yet) and returns the entries to store.
+     */
+    static void updateProperties(Path file, String comment, UnaryOperator<Map<String, String>> merge) throws IOException {
+        update(file, current -> {
+            Map<String, String> entries = current == null ? new TreeMap<>() : parseProperties(current, file);
+            Properties properties = new Properties();
+            merge.apply(entries).forEach(properties::setProperty);
+            StringWriter out = new StringWriter();
+            try {
+                properties.store(out, comment);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toString();
+        });
+    }
+
+    static Map<String, String> readProperties(Path file) {
+        try {
+            return parseProperties(Files.readString(file, StandardCharsets.UTF_8), file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        }
+    }
+
+    private static Map<String, String> parseProperties(String content, Path file) {
+        Properties properties = new Properties();
+        try {
+            properties.load(new StringReader(content));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new UncheckedIOException("Failed to read " + file, e instanceof IOException io ? io : new IOException(e));
+        }
+        Map<String, String> entries = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            entries.put(key, properties.getProperty(key));
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,125 @@
+package base;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+/**
+ * Event-driven page readiness. A small in-page observer counts pending fetch/XHR requests and
+ * timestamps DOM mutations; one async script then resolves as soon as the page is network-idle
+ * or DOM-quiet, instead of polling document.readyState over the wire.
+ * On Chrome the observer is installed at document start through CDP so requests fired during load
+ * are seen too; elsewhere it is installed on first wait and only tracks later requests.
+ * Thresholds come from pageReady.* and can be overridden per page object with pageReady.<PageClass>.*.
+ */
+public class PageReadiness {
+
+    static {
+        Config.addValidator(config -> {
+            config.getEnum("pageReady.mode", PageReadyMode.class, PageReadyMode.NETWORK_IDLE);
+            config.getDuration("pageReady.idleTime", Duration.ZERO);
+            config.getDuration("pageReady.timeout", Duration.ZERO);
+        });
+    }
+
+    public record Thresholds(PageReadyMode mode, Duration idleTime, Duration timeout) {
+    }
+
+    // Timestamps start at 0 (navigation start) so a late install does not add a full idle window
+    private static final String OBSERVER_JS =
+            "(function(){"
+            + "if (window.__aeReady) return;"
+            + "var s = window.__aeReady = {pending: 0, lastNet: 0, lastMut: 0};"
+            + "var done = function(){ s.pending = Math.max(0, s.pending - 1); s.lastNet = performance.now(); };"
+            + "if (window.fetch) { var f = window.fetch; window.fetch = function(){"
+            + "  s.pending++; s.lastNet = performance.now();"
+            + "  var p = f.apply(this, arguments); p.then(done, done); return p; }; }"
+            + "var send = XMLHttpRequest.prototype.send;"
+            + "XMLHttpRequest.prototype.send = function(){"
+            + "  s.pending++; s.lastNet = performance.now();"
+            + "  this.addEventListener('loadend', done); return send.apply(this, arguments); };"
+            + "new MutationObserver(function(){ s.lastMut = performance.now(); })"
+            + "  .observe(document, {childList: true, subtree: true, attributes: true, characterData: true});"
+            + "})();";
+
+    // Re-checks exactly when the current quiet window would end rather than on a fixed interval
+    private static final String WAIT_JS =
+            OBSERVER_JS
+            + "var mode = arguments[0], idle = arguments[1], timeout = arguments[2], callback = arguments[arguments.length - 1];"
+            + "var s = window.__aeReady, t0 = performance.now();"
+            + "(function check(){"
+            + "  var now = performance.now(), wait = 25;"
+            + "  var ready = document.readyState === 'complete';"
+            + "  if (ready && mode === 'NETWORK_IDLE') {"
+            + "    if (s.pending > 0) ready = false; else if (now - s.lastNet < idle) { ready = false; wait = idle - (now - s.lastNet); } }"
+            + "  if (ready && mode === 'DOM_QUIET' && now - s.lastMut < idle) { ready = false; wait = idle - (now - s.lastMut); }"
+            + "  if (ready) return callback(true);"
+            + "  if (now - t0 >= timeout) return callback(false);"
+            + "  setTimeout(check, Math.max(5, Math.min(wait, timeout - (now - t0))));"
+            + "})();";
+
+    public static Thresholds defaults() {
+        Config config = Config.get();
+        return new Thresholds(
+                config.getEnum("pageReady.mode", PageReadyMode.class, PageReadyMode.NETWORK_IDLE),
+                config.getDuration("pageReady.idleTime", Duration.ofMillis(200)),
+                config.getDuration("pageReady.timeout", Duration.ofSeconds(30)));
+    }
+
+    /**
+     * Thresholds for one page object, e.g. pageReady.Login.idleTime, falling back to the global ones.
+     */
+    public static Thresholds forPage(String pageName) {
+        Config config = Config.get();
+        Thresholds defaults = defaults();
+        String prefix = "pageReady." + pageName + ".";
+        return new Thresholds(
+                config.getEnum(prefix + "mode", PageReadyMode.class, defaults.mode()),
+                config.getDuration(prefix + "idleTime", defaults.idleTime()),
+                config.getDuration(prefix + "timeout", defaults.timeout()));
+    }
+
+    /**
+     * Installs the observer at document start on Chrome sessions; called once per session.
+     */
+    static void install(WebDriver driver) {
+        Duration timeout = defaults().timeout();
+        // The in-page wait enforces its own deadline; the script timeout only has to outlast it
+        driver.manage().timeouts().scriptTimeout(timeout.plusSeconds(5));
+        if (defaults().mode() != PageReadyMode.READY_STATE && driver instanceof HasCdp) {
+            ((HasCdp) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", OBSERVER_JS));
+        }
+    }
+
+    /**
+     * Blocks until the page is ready under the given thresholds.
+     *
+     * @throws org.openqa.selenium.TimeoutException If it is not ready within the threshold timeout.
+     */
+    public static void await(Thresholds thresholds, String label) {
+        if (thresholds.mode() == PageReadyMode.READY_STATE) {
+            Waits.until(
+                    webDriver -> ((JavascriptExecutor) webDriver)
+                            .executeScript("return document.readyState").equals("complete"),
+                    thresholds.timeout(), label);
+            return;
+        }
+
+        long deadline = System.nanoTime() + thresholds.timeout().toNanos();
+        Waits.until(webDriver -> {
+            long remainingMillis = Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+            try {
+                return Boolean.TRUE.equals(((JavascriptExecutor) webDriver).executeAsyncScript(WAIT_JS,
+                        thresholds.mode().name(), thresholds.idleTime().toMillis(), remainingMillis));
+            } catch (JavascriptException | ScriptTimeoutException e) {
+                // Navigation unloaded the document mid-wait; try again on the new one
+                return false;
+            }
+        }, thresholds.timeout(), label);
+    }
+}
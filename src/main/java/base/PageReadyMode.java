@@ -0,0 +1,13 @@
+package base;
+
+/**
+ * When BaseClass.waitForPageLoad considers a page ready.
+ */
+public enum PageReadyMode {
+    // document.readyState == complete only (previous behaviour)
+    READY_STATE,
+    // readyState complete and no fetch/XHR in flight for pageReady.idleTime
+    NETWORK_IDLE,
+    // readyState complete and no DOM mutations for pageReady.idleTime
+    DOM_QUIET
+}
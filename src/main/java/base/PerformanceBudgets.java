@@ -0,0 +1,274 @@
+package base;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.testng.ITestResult;
+
+import io.qameta.allure.Allure;
+
+/**
+ * Browser-side page performance checked against per-page budgets.
+ * One executeScript per capture reads Navigation Timing, paint entries and the Resource Timing entries
+ * since the previous capture, then clears the resource buffer so it never fills up.
+ * Captures run after BaseClass.waitForPageLoad and, with perfBudget.captureSteps=true, after every @Step;
+ * each navigation becomes one sample, attributed to the page object that was active when it was first seen.
+ * When a test ends its samples are checked against perfBudget.* (overridable per page object with
+ * perfBudget.<PageClass>.*), attached to Allure and queued for the trend file appended at suite end.
+ */
+public class PerformanceBudgets {
+
+    static {
+        Config.addValidator(config -> {
+            config.getBoolean("perfBudget.enabled", true);
+            config.getBoolean("perfBudget.captureSteps", true);
+            config.getDuration("perfBudget.ttfb", Duration.ZERO);
+            config.getDuration("perfBudget.domContentLoaded", Duration.ZERO);
+            config.getDuration("perfBudget.load", Duration.ZERO);
+            config.getDuration("perfBudget.fcp", Duration.ZERO);
+            config.getLong("perfBudget.transferSize", 0);
+            config.getEnum("perfBudget.severity", BudgetSeverity.class, BudgetSeverity.SOFT);
+        });
+    }
+
+    /**
+     * Zero durations or sizes mean no budget for that metric.
+     *
+     * @param transferSize Bytes over the wire for the document and its resources; cached and
+     *                     cross-origin resources without Timing-Allow-Origin count as 0.
+     */
+    public record Budget(Duration ttfb, Duration domContentLoaded, Duration load, Duration firstContentfulPaint,
+                         long transferSize, BudgetSeverity severity) {
+    }
+
+    private static final boolean ENABLED = Config.get().getBoolean("perfBudget.enabled", true);
+    private static final boolean CAPTURE_STEPS = Config.get().getBoolean("perfBudget.captureSteps", true);
+    private static final String RUN_ID = Instant.now().toString();
+
+    // Navigation metrics are milliseconds from navigation start, returned once the load event has finished
+    private static final String CAPTURE_JS =
+            "var knownOrigin = arguments[0], navDone = arguments[1];"
+            + "var out = {origin: performance.timeOrigin, url: location.href};"
+            + "var nav = performance.getEntriesByType('navigation')[0];"
+            + "if (nav && nav.loadEventEnd > 0 && (performance.timeOrigin !== knownOrigin || !navDone)) {"
+            + "  out.nav = {ttfb: nav.responseStart, domContentLoaded: nav.domContentLoadedEventEnd,"
+            + "    load: nav.loadEventEnd, transferSize: nav.transferSize || 0};"
+            + "  performance.getEntriesByType('paint').forEach(function(p){"
+            + "    if (p.name === 'first-contentful-paint') out.nav.fcp = p.startTime; }); }"
+            + "var res = performance.getEntriesByType('resource'), bytes = 0;"
+            + "for (var i = 0; i < res.length; i++) bytes += res[i].transferSize || 0;"
+            + "out.resources = res.length; out.resourceBytes = bytes;"
+            + "performance.clearResourceTimings();"
+            + "return out;";
+
+    private static final class Sample {
+        private final String page;
+        private final String url;
+        private final double origin;
+        private Map<String, Double> navigation;
+        private int resources;
+        private long resourceBytes;
+
+        private Sample(String page, String url, double origin) {
+            this.page = page;
+            this.url = url;
+            this.origin = origin;
+        }
+
+        private long transferSize() {
+            double document = navigation != null ? navigation.getOrDefault("transferSize", 0.0) : 0;
+            return (long) document + resourceBytes;
+        }
+    }
+
+    private static final class TestState {
+        private String page = "unknown";
+        private final List<Sample> samples = new ArrayList<>();
+    }
+
+    private static final ThreadLocal<TestState> state = ThreadLocal.withInitial(TestState::new);
+    private static final ConcurrentLinkedQueue<String> trend = new ConcurrentLinkedQueue<>();
+
+    // Page object that new navigations on this thread are attributed to
+    public static void page(Class<?> page) {
+        state.get().page = page.getSimpleName();
+    }
+
+    public static void onStep() {
+        if (CAPTURE_STEPS) {
+            capture();
+        }
+    }
+
+    /**
+     * Reads the timing entries of the current page of this thread's driver into the running sample.
+     */
+    public static void capture() {
+        WebDriver driver = DriverInstance.getDriver();
+        if (!ENABLED || !(driver instanceof JavascriptExecutor js)) return;
+
+        TestState test = state.get();
+        Sample last = test.samples.isEmpty() ? null : test.samples.get(test.samples.size() - 1);
+        long start = System.nanoTime();
+        try {
+            Object raw = js.executeScript(CAPTURE_JS, last != null ? last.origin : null, last != null && last.navigation != null);
+            if (!(raw instanceof Map<?, ?> result)) return;
+
+            double origin = number(result.get("origin"));
+            Sample sample = last;
+            if (last == null || last.origin != origin) {
+                sample = new Sample(test.page, String.valueOf(result.get("url")), origin);
+                test.samples.add(sample);
+            }
+            if (result.get("nav") instanceof Map<?, ?> nav) {
+                Map<String, Double> navigation = new LinkedHashMap<>();
+                nav.forEach((key, value) -> navigation.put(String.valueOf(key), number(value)));
+                sample.navigation = navigation;
+            }
+            sample.resources += (int) number(result.get("resources"));
+            sample.resourceBytes += (long) number(result.get("resourceBytes"));
+        } catch (WebDriverException e) {
+            // Usually mid-navigation; the next capture picks the new document up
+            TestLogBuffer.add("Performance capture skipped: " + e.getMessage());
+        } finally {
+            ActionMetrics.record("perfCapture", null, start);
+        }
+    }
+
+    /**
+     * Budget of one page object, e.g. perfBudget.Login.load, falling back to the global perfBudget.* keys.
+     */
+    public static Budget budgetFor(String page) {
+        Config config = Config.get();
+        String prefix = "perfBudget." + page + ".";
+        return new Budget(
+                config.getDuration(prefix + "ttfb", config.getDuration("perfBudget.ttfb", Duration.ZERO)),
+                config.getDuration(prefix + "domContentLoaded", config.getDuration("perfBudget.domContentLoaded", Duration.ZERO)),
+                config.getDuration(prefix + "load", config.getDuration("perfBudget.load", Duration.ZERO)),
+                config.getDuration(prefix + "fcp", config.getDuration("perfBudget.fcp", Duration.ZERO)),
+                config.getLong(prefix + "transferSize", config.getLong("perfBudget.transferSize", 0)),
+                config.getEnum(prefix + "severity", BudgetSeverity.class,
+                        config.getEnum("perfBudget.severity", BudgetSeverity.class, BudgetSeverity.SOFT)));
+    }
+
+    /**
+     * Checks, attaches and queues the samples of the test that just ran on this thread.
+     * A passing test with HARD violations is turned into a failure, so call this before the result is reported.
+     */
+    public static void finishTest(ITestResult result) {
+        TestState test = state.get();
+        state.remove();
+        if (!ENABLED || test.samples.isEmpty()) return;
+
+        String testName = TestContext.testName(result);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        List<String> hardViolations = new ArrayList<>();
+        int violationCount = 0;
+        for (Sample sample : test.samples) {
+            Budget budget = budgetFor(sample.page);
+            List<String> violations = budget.severity() == BudgetSeverity.OFF ? List.of() : check(sample, budget);
+            for (String violation : violations) {
+                AuditLog.info("[Perf Budget] " + testName + " " + sample.page + " " + budget.severity() + ": " + violation);
+                if (budget.severity() == BudgetSeverity.HARD) {
+                    hardViolations.add(sample.page + " " + violation);
+                }
+            }
+            violationCount += violations.size();
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("run", RUN_ID);
+            row.put("test", testName);
+            row.put("page", sample.page);
+            row.put("url", sample.url);
+            row.put("navigation", sample.navigation != null ? sample.navigation : "incomplete");
+            row.put("resources", sample.resources);
+            row.put("transferSize", sample.transferSize());
+            row.put("severity", budget.severity().name());
+            row.put("violations", violations);
+            rows.add(row);
+            trend.add(singleLine(row));
+        }
+
+        Allure.addAttachment(violationCount == 0 ? "Performance" : "Performance (" + violationCount + " budget violations)",
+                "application/json", new Json().toJson(rows), "json");
+        if (!hardViolations.isEmpty() && result.getStatus() == ITestResult.SUCCESS) {
+            result.setStatus(ITestResult.FAILURE);
+            result.setThrowable(new AssertionError("Performance budget exceeded: " + String.join("; ", hardViolations)));
+        }
+    }
+
+    /**
+     * Appends this JVM's samples to perfBudget.trendFile, one JSON object per line.
+     * The file lock keeps rows from parallel forks from interleaving.
+     */
+    public static void writeTrend() throws IOException {
+        if (trend.isEmpty()) return;
+        StringBuilder lines = new StringBuilder();
+        String line;
+        while ((line = trend.poll()) != null) {
+            lines.append(line).append('\n');
+        }
+
+        Path file = Paths.get(Config.get().getString("perfBudget.trendFile", "perf-trend.jsonl"));
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+             FileLock lock = channel.lock()) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static List<String> check(Sample sample, Budget budget) {
+        List<String> violations = new ArrayList<>();
+        if (sample.navigation != null) {
+            over(violations, "ttfb", sample.navigation.get("ttfb"), budget.ttfb());
+            over(violations, "domContentLoaded", sample.navigation.get("domContentLoaded"), budget.domContentLoaded());
+            over(violations, "load", sample.navigation.get("load"), budget.load());
+            over(violations, "fcp", sample.navigation.get("fcp"), budget.firstContentfulPaint());
+        }
+        long transferSize = sample.transferSize();
+        if (budget.transferSize() > 0 && transferSize > budget.transferSize()) {
+            violations.add("transferSize " + transferSize + " B > " + budget.transferSize() + " B");
+        }
+        return violations;
+    }
+
+    private static void over(List<String> violations, String metric, Double millis, Duration budget) {
+        if (millis != null && !budget.isZero() && millis > budget.toMillis()) {
+            violations.add(String.format(Locale.ROOT, "%s %.0f ms > %d ms", metric, millis, budget.toMillis()));
+        }
+    }
+
+    private static String singleLine(Object value) {
+        StringBuilder json = new StringBuilder();
+        new Json().newOutput(json).setPrettyPrint(false).write(value);
+        return json.toString();
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number number ? number.doubleValue() : 0;
+    }
+}
@@ -0,0 +1,157 @@
+package base;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.json.Json;
+
+/**
+ * Blocks ad/tracking requests (and optionally images and fonts) at session creation so
+ * waitForPageLoad is not held back by third-party scripts.
+ * Chrome uses DevTools Network.setBlockedURLs and counts blocked requests per session;
+ * Firefox uses prefs plus a PAC script that sends blocked URLs to a dead proxy (no counts available).
+ */
+public class RequestBlocker {
+
+    static {
+        Config.addValidator(config -> {
+            config.getBoolean("blocking.enabled", false);
+            config.getBoolean("blocking.images", false);
+            config.getBoolean("blocking.fonts", false);
+            config.getDuration("blocking.baselineLoad", Duration.ZERO);
+        });
+    }
+
+    private static final List<String> FONT_PATTERNS = List.of("*.woff", "*.woff2", "*.ttf", "*.otf", "*fonts.googleapis.com*", "*fonts.gstatic.com*");
+
+    private static final Map<WebDriver, AtomicLong> blockedCounts = new ConcurrentHashMap<>();
+
+    public static boolean isEnabled() {
+        return Config.get().getBoolean("blocking.enabled", false);
+    }
+
+    // URL patterns with * wildcards, as understood by both CDP and PAC shExpMatch
+    public static List<String> getPatterns() {
+        Config config = Config.get();
+        List<String> patterns = new ArrayList<>();
+        for (String pattern : config.getString("blocking.urlPatterns", "").split(",")) {
+            if (!pattern.isBlank()) patterns.add(pattern.trim());
+        }
+        if (config.getBoolean("blocking.fonts", false)) {
+            patterns.addAll(FONT_PATTERNS);
+        }
+        return patterns;
+    }
+
+    public static void configure(ChromeOptions options) {
+        if (!isEnabled()) return;
+        if (Config.get().getBoolean("blocking.images", false)) {
+            options.setExperimentalOption("prefs", Map.of("profile.managed_default_content_settings.images", 2));
+        }
+    }
+
+    public static void configure(FirefoxOptions options) {
+        if (!isEnabled()) return;
+        Config config = Config.get();
+        if (config.getBoolean("blocking.images", false)) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (config.getBoolean("blocking.fonts", false)) {
+            options.addPreference("browser.display.use_document_fonts", 0);
+        }
+
+        List<String> patterns = getPatterns();
+        if (!patterns.isEmpty()) {
+            StringBuilder pac = new StringBuilder("function FindProxyForURL(url, host) {");
+            for (String pattern : patterns) {
+                pac.append(" if (shExpMatch(url, \"").append(pattern.replace("\"", "")).append("\")) return \"PROXY 127.0.0.1:9\";");
+            }
+            pac.append(" return \"DIRECT\"; }");
+            options.addPreference("network.proxy.type", 2);
+            options.addPreference("network.proxy.autoconfig_url",
+                    "data:text/plain," + URLEncoder.encode(pac.toString(), StandardCharsets.UTF_8).replace("+", "%20"));
+        }
+    }
+
+    /**
+     * Installs the Chrome block list on a freshly created session and starts counting blocked requests.
+     */
+    public static void attach(WebDriver driver) {
+        if (!isEnabled()) return;
+        List<String> patterns = getPatterns();
+        if (patterns.isEmpty()) return;
+
+        if (driver instanceof HasDevTools) {
+            try {
+                DevTools devTools = ((HasDevTools) driver).getDevTools();
+                devTools.createSessionIfThereIsNotOne();
+                AtomicLong counter = blockedCounts.computeIfAbsent(driver, d -> new AtomicLong());
+                devTools.addListener(new Event<Map<String, Object>>("Network.loadingFailed", input -> input.read(Json.MAP_TYPE)),
+                        event -> {
+                            if (event.get("blockedReason") != null) counter.incrementAndGet();
+                        });
+                devTools.send(new Command<>("Network.enable", Map.of()));
+                devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", patterns)));
+                return;
+            } catch (WebDriverException e) {
+                System.err.println("DevTools unavailable, blocking without counts: " + e.getMessage());
+            }
+        }
+        if (driver instanceof HasCdp) {
+            ((HasCdp) driver).executeCdpCommand("Network.enable", Map.of());
+            ((HasCdp) driver).executeCdpCommand("Network.setBlockedURLs", Map.of("urls", patterns));
+        }
+    }
+
+    public static void detach(WebDriver driver) {
+        blockedCounts.remove(driver);
+    }
+
+    // Called at test start so counts are per test even on pooled sessions
+    public static void resetCount(WebDriver driver) {
+        AtomicLong counter = blockedCounts.get(driver);
+        if (counter != null) counter.set(0);
+    }
+
+    /**
+     * Blocked request count (Chrome only), the last navigation's load time and, when
+     * blocking.baselineLoad is configured, the time saved against that unblocked baseline.
+     */
+    public static Map<String, Object> report(WebDriver driver) {
+        Map<String, Object> report = new HashMap<>();
+        AtomicLong counter = blockedCounts.get(driver);
+        report.put("blockedRequests", counter != null ? counter.get() : "n/a");
+
+        try {
+            Object load = ((JavascriptExecutor) driver).executeScript(
+                    "var n = performance.getEntriesByType('navigation')[0]; return n ? Math.round(n.loadEventEnd) : null;");
+            if (load instanceof Number loadMillis) {
+                report.put("loadMillis", loadMillis.longValue());
+                Duration baseline = Config.get().getDuration("blocking.baselineLoad", Duration.ZERO);
+                if (!baseline.isZero()) {
+                    report.put("savedMillis", baseline.toMillis() - loadMillis.longValue());
+                }
+            }
+        } catch (WebDriverException e) {
+            report.put("loadMillis", "n/a");
+        }
+        return report;
+    }
+}
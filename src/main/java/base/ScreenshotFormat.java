@@ -0,0 +1,11 @@
+package base;
+
+/**
+ * Encoding of step screenshots written to the Allure results. See {@link ScreenshotManager}.
+ */
+public enum ScreenshotFormat {
+    // Browser PNG as captured (only re-encoded when screenshot.scale is below 1)
+    PNG,
+    // Lossy JPEG at screenshot.jpegQuality, usually 5-10x smaller for page screenshots
+    JPEG
+}
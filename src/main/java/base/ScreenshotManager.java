@@ -0,0 +1,330 @@
+package base;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
+
+/**
+ * Policy-driven screenshot capture for page-object steps.
+ * The test thread only grabs the PNG bytes, drops frames identical to the previous one of the same test,
+ * and registers the attachment with Allure; downscaling, re-encoding and writing the file are handed
+ * to a bounded background writer.
+ * With screenshot.contentAddressed=true the attachment file is named after the SHA-256 of the captured
+ * PNG and the output settings, so identical frames across tests share one file in the results directory.
+ */
+public class ScreenshotManager {
+
+    static {
+        Config.addValidator(config -> {
+            config.getEnum("screenshot.policy", ScreenshotPolicy.class, ScreenshotPolicy.EVERY_STEP);
+            config.getInt("screenshot.sampleEvery", 1);
+            config.getInt("screenshot.ringSize", 1);
+            config.getInt("screenshot.writerThreads", 1);
+            config.getInt("screenshot.queueCapacity", 1);
+            config.getBoolean("screenshot.dedupe", true);
+            config.getBoolean("screenshot.contentAddressed", true);
+            config.getDouble("screenshot.scale", 1.0);
+            config.getEnum("screenshot.format", ScreenshotFormat.class, ScreenshotFormat.PNG);
+            config.getDouble("screenshot.jpegQuality", 0.75);
+        });
+    }
+
+    private static final ScreenshotPolicy POLICY;
+    private static final int SAMPLE_EVERY;
+    private static final int RING_SIZE;
+    private static final ThreadPoolExecutor WRITER;
+
+    private static final boolean DEDUPE;
+    private static final boolean CONTENT_ADDRESSED;
+    private static final double SCALE;
+    private static final ScreenshotFormat FORMAT;
+    private static final float JPEG_QUALITY;
+
+    private static final Set<String> writtenSources = ConcurrentHashMap.newKeySet();
+    private static final LongAdder capturedFrames = new LongAdder();
+    private static final LongAdder capturedBytes = new LongAdder();
+    private static final LongAdder skippedFrames = new LongAdder();
+    private static final LongAdder sharedFrames = new LongAdder();
+    private static final LongAdder writtenBytes = new LongAdder();
+
+    static {
+        Config config = Config.get();
+        POLICY = config.getEnum("screenshot.policy", ScreenshotPolicy.class, ScreenshotPolicy.EVERY_STEP);
+        SAMPLE_EVERY = Math.max(1, config.getInt("screenshot.sampleEvery", 5));
+        RING_SIZE = Math.max(1, config.getInt("screenshot.ringSize", 5));
+        int writerThreads = Math.max(1, config.getInt("screenshot.writerThreads", 1));
+        int queueCapacity = Math.max(1, config.getInt("screenshot.queueCapacity", 64));
+        DEDUPE = config.getBoolean("screenshot.dedupe", true);
+        CONTENT_ADDRESSED = config.getBoolean("screenshot.contentAddressed", true);
+        SCALE = Math.min(1.0, Math.max(0.05, config.getDouble("screenshot.scale", 1.0)));
+        FORMAT = config.getEnum("screenshot.format", ScreenshotFormat.class, ScreenshotFormat.PNG);
+        JPEG_QUALITY = (float) Math.min(1.0, Math.max(0.05, config.getDouble("screenshot.jpegQuality", 0.75)));
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        // A full queue makes the producing test thread write the attachment itself (back-pressure)
+        WRITER = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "screenshot-writer-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        Runtime.getRuntime().addShutdownHook(new Thread(ScreenshotManager::shutdown, "screenshot-writer-shutdown"));
+    }
+
+    /**
+     * Per-thread step counter and frame ring buffer, reset at the start of each test.
+     */
+    private static final class StepState {
+        private final Deque<byte[]> frames = new ArrayDeque<>();
+        private int steps;
+        private byte[] lastDigest;
+    }
+
+    private static final ThreadLocal<StepState> stepState = ThreadLocal.withInitial(StepState::new);
+
+    public static ScreenshotPolicy getPolicy() {
+        return POLICY;
+    }
+
+    // Called after each page-object step; returns the PNG taken, or an empty array when the policy skipped this step
+    public static byte[] onStep() {
+        StepState state = stepState.get();
+        state.steps++;
+
+        byte[] frame = new byte[0];
+        switch (POLICY) {
+            case EVERY_STEP -> {
+                frame = capture();
+                attachStep(state, frame);
+            }
+            case SAMPLED -> {
+                if (state.steps % SAMPLE_EVERY == 0) {
+                    frame = capture();
+                    attachStep(state, frame);
+                }
+            }
+            case RING_BUFFER -> {
+                frame = capture();
+                if (frame.length == 0) return frame;
+                if (state.frames.size() == RING_SIZE) {
+                    state.frames.removeFirst();
+                }
+                state.frames.addLast(frame);
+            }
+            case ON_FAILURE -> {
+                // Failure screenshot is taken by TestAllureListener
+            }
+        }
+        return frame;
+    }
+
+    // Drop per-test state; called when a test starts or finishes without failing
+    public static void reset() {
+        StepState state = stepState.get();
+        state.frames.clear();
+        state.steps = 0;
+        state.lastDigest = null;
+    }
+
+    // Attach the buffered frames of the current test, oldest first
+    public static void flushFailureFrames() {
+        StepState state = stepState.get();
+        int total = state.frames.size();
+        int index = 1;
+        for (byte[] frame : state.frames) {
+            attachAsync("Step frame " + index++ + " of " + total, frame);
+        }
+        reset();
+    }
+
+    // Skips a frame that is byte-identical to the previous one of the same test
+    private static void attachStep(StepState state, byte[] png) {
+        if (png.length == 0) return;
+        byte[] digest = sha256(png);
+        if (DEDUPE && Arrays.equals(digest, state.lastDigest)) {
+            capturedFrames.increment();
+            capturedBytes.add(png.length);
+            skippedFrames.increment();
+            return;
+        }
+        state.lastDigest = digest;
+        attach("Screenshot", png, digest);
+    }
+
+    /**
+     * Registers the attachment on the current Allure test or step and writes its bytes in the background.
+     */
+    public static void attachAsync(String name, byte[] png) {
+        if (png.length == 0) return;
+        attach(name, png, CONTENT_ADDRESSED ? sha256(png) : null);
+    }
+
+    private static void attach(String name, byte[] png, byte[] digest) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        if (lifecycle.getCurrentTestCaseOrStep().isEmpty()) return;
+        capturedFrames.increment();
+        capturedBytes.add(png.length);
+
+        String type = FORMAT == ScreenshotFormat.JPEG ? "image/jpeg" : "image/png";
+        String extension = FORMAT == ScreenshotFormat.JPEG ? "jpg" : "png";
+        String source;
+        if (CONTENT_ADDRESSED && digest != null) {
+            // Same captured bytes and same output settings always produce the same file
+            source = HexFormat.of().formatHex(digest, 0, 16) + "-" + variant() + "-attachment." + extension;
+            addToCurrent(lifecycle, new Attachment().setName(name).setType(type).setSource(source));
+            if (!writtenSources.add(source) || Files.exists(AllureEnvironment.resultsDirectory().resolve(source))) {
+                sharedFrames.increment();
+                return;
+            }
+        } else {
+            source = lifecycle.prepareAttachment(name, type, extension);
+        }
+        WRITER.execute(() -> {
+            byte[] encoded = encode(png);
+            writtenBytes.add(encoded.length);
+            lifecycle.writeAttachment(source, new ByteArrayInputStream(encoded));
+        });
+    }
+
+    private static void addToCurrent(AllureLifecycle lifecycle, Attachment attachment) {
+        String uuid = lifecycle.getCurrentTestCaseOrStep().orElseThrow();
+        if (uuid.equals(lifecycle.getCurrentTestCase().orElse(null))) {
+            lifecycle.updateTestCase(uuid, test -> test.getAttachments().add(attachment));
+        } else {
+            lifecycle.updateStep(uuid, step -> step.getAttachments().add(attachment));
+        }
+    }
+
+    // Downscales and re-encodes according to screenshot.scale/format; PNG at full size is passed through
+    private static byte[] encode(byte[] png) {
+        if (FORMAT == ScreenshotFormat.PNG && SCALE >= 1.0) return png;
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) return png;
+            int width = Math.max(1, (int) Math.round(image.getWidth() * SCALE));
+            int height = Math.max(1, (int) Math.round(image.getHeight() * SCALE));
+            BufferedImage output = new BufferedImage(width, height,
+                    FORMAT == ScreenshotFormat.JPEG ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+            Graphics2D graphics = output.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+            graphics.dispose();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            if (FORMAT == ScreenshotFormat.PNG) {
+                ImageIO.write(output, "png", out);
+                return out.toByteArray();
+            }
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+                writer.setOutput(stream);
+                writer.write(null, new IIOImage(output, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            System.err.println("Screenshot re-encoding failed, keeping PNG: " + e.getMessage());
+            return png;
+        }
+    }
+
+    private static String variant() {
+        return FORMAT == ScreenshotFormat.JPEG
+                ? "s" + Math.round(SCALE * 100) + "q" + Math.round(JPEG_QUALITY * 100)
+                : "s" + Math.round(SCALE * 100);
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Frames captured, skipped as consecutive duplicates, shared through content addressing,
+     * and bytes captured versus written, for the per-run savings report.
+     */
+    public static Map<String, Object> savings() {
+        awaitWrites(TimeUnit.SECONDS.toMillis(30));
+        Map<String, Object> savings = new LinkedHashMap<>();
+        savings.put("capturedFrames", capturedFrames.sum());
+        savings.put("skippedDuplicateFrames", skippedFrames.sum());
+        savings.put("sharedFrames", sharedFrames.sum());
+        savings.put("capturedBytes", capturedBytes.sum());
+        savings.put("writtenBytes", writtenBytes.sum());
+        savings.put("savedBytes", capturedBytes.sum() - writtenBytes.sum());
+        return savings;
+    }
+
+    private static byte[] capture() {
+        WebDriver driver = DriverInstance.getDriver();
+        if (!(driver instanceof TakesScreenshot)) return new byte[0];
+        return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+    }
+
+    // Written byte counts are only final once the writer has caught up
+    private static void awaitWrites(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while ((!WRITER.getQueue().isEmpty() || WRITER.getActiveCount() > 0) && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Let queued attachments reach disk before the JVM exits
+    private static void shutdown() {
+        WRITER.shutdown();
+        try {
+            if (!WRITER.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.err.println("Screenshot writer did not finish; " + WRITER.getQueue().size() + " attachments dropped");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package base;
+
+/**
+ * When page-object steps capture screenshots. See {@link ScreenshotManager}.
+ */
+public enum ScreenshotPolicy {
+    // Capture and attach after every step (the original behaviour)
+    EVERY_STEP,
+    // Never capture per step; TestAllureListener still takes one screenshot on failure
+    ON_FAILURE,
+    // Capture and attach every Nth step of a test
+    SAMPLED,
+    // Keep the last N frames in memory and attach them only when the test fails
+    RING_BUFFER
+}
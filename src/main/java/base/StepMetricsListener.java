@@ -0,0 +1,21 @@
+package base;
+
+import io.qameta.allure.listener.StepLifecycleListener;
+import io.qameta.allure.model.StepResult;
+
+/**
+ * Feeds the duration of every Allure @Step into ActionMetrics and the step into TestLogBuffer,
+ * and lets PerformanceBudgets pick up navigations the step caused.
+ * Registered through META-INF/services/io.qameta.allure.listener.StepLifecycleListener.
+ */
+public class StepMetricsListener implements StepLifecycleListener {
+
+    @Override
+    public void afterStepStop(StepResult result) {
+        TestLogBuffer.add("Step: " + result.getName() + " [" + result.getStatus() + "]");
+        if (result.getStart() != null && result.getStop() != null) {
+            ActionMetrics.recordStep(result.getName(), result.getStop() - result.getStart());
+        }
+        PerformanceBudgets.onStep();
+    }
+}
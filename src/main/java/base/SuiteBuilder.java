@@ -0,0 +1,60 @@
+package base;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.TestNG;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+/**
+ * Builds and runs a TestNG suite in code instead of from testng.xml: parallel methods on
+ * schedule.threads threads, with the framework listeners, TestImpact and DurationScheduler attached.
+ * Test classes come from the arguments or schedule.classes; the shard comes from shard.index/shard.total.
+ * Example: java -Dshard.index=1 -Dshard.total=3 base.SuiteBuilder com.example.LoginTest
+ */
+public class SuiteBuilder {
+
+    public static XmlSuite build(String name, List<String> classNames) {
+        int threads = Math.max(1, Config.get().getInt("schedule.threads", 1));
+
+        XmlSuite suite = new XmlSuite();
+        suite.setName(name);
+        suite.setParallel(threads > 1 ? XmlSuite.ParallelMode.METHODS : XmlSuite.ParallelMode.NONE);
+        suite.setThreadCount(threads);
+        suite.addListener(TestAllureListener.class.getName());
+        // Selection first, so the scheduler only balances the methods that still run
+        suite.addListener(TestImpact.class.getName());
+        suite.addListener(DurationScheduler.class.getName());
+        suite.addListener("io.qameta.allure.testng.AllureTestNg");
+
+        XmlTest test = new XmlTest(suite);
+        test.setName(name);
+        List<XmlClass> classes = new ArrayList<>();
+        for (String className : classNames) {
+            classes.add(new XmlClass(className));
+        }
+        test.setXmlClasses(classes);
+        return suite;
+    }
+
+    public static void main(String[] args) {
+        List<String> classNames = new ArrayList<>(Arrays.asList(args));
+        if (classNames.isEmpty()) {
+            for (String className : Config.get().getString("schedule.classes", "").split(",")) {
+                if (!className.isBlank()) classNames.add(className.trim());
+            }
+        }
+        if (classNames.isEmpty()) {
+            throw new IllegalArgumentException("No test classes given; pass them as arguments or set schedule.classes");
+        }
+
+        TestNG testng = new TestNG();
+        testng.setUseDefaultListeners(false);
+        testng.setXmlSuites(List.of(build("automationexercise", classNames)));
+        testng.run();
+        System.exit(testng.getStatus());
+    }
+}
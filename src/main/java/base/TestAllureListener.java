@@ -1,10 +1,25 @@
 package base;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
+import org.openqa.selenium.BuildInfo;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
@@ -15,7 +30,7 @@ import io.qameta.allure.Attachment;
 /**
  * Listener class to capture screenshots and logs on test events and attach them to Allure reports.
  */
-public class TestAllureListener implements ITestListener {
+public class TestAllureListener implements ITestListener, ISuiteListener, IInvokedMethodListener {
 
     /**
      * Utility to extract the test method name from ITestResult.
@@ -42,6 +57,14 @@ public class TestAllureListener implements ITestListener {
         return message;
     }
 
+    /**
+     * Attach plain text log to Allure report under the given name.
+     */
+    @Attachment(value = "{0}", type = "text/plain", fileExtension = ".txt")
+    public static String saveTextLog(String name, String message) {
+        return message;
+    }
+
     /**
      * Attach raw HTML content to Allure report.
      */
@@ -50,46 +73,206 @@ public class TestAllureListener implements ITestListener {
         return html;
     }
 
+    /**
+     * Attach raw HTML content to Allure report under the given name.
+     */
+    @Attachment(value = "{0}", type = "text/html", fileExtension = ".html")
+    public static String attachHtml(String name, String html) {
+        return html;
+    }
+
+    /**
+     * Attach the failed test's log lines and, with testLog.domSnapshot=true, the page source
+     * (gzipped when testLog.compressDom=true).
+     */
+    private static void attachFailureLog(WebDriver driver) {
+        saveTextLog("Test log", TestLogBuffer.dump());
+
+        Config config = Config.get();
+        if (driver == null || !config.getBoolean("testLog.domSnapshot", false)) return;
+        try {
+            String html = driver.getPageSource();
+            if (config.getBoolean("testLog.compressDom", true)) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                    gzip.write(html.getBytes(StandardCharsets.UTF_8));
+                }
+                Allure.addAttachment("DOM snapshot", "application/gzip", new ByteArrayInputStream(compressed.toByteArray()), "html.gz");
+            } else {
+                attachHtml("DOM snapshot", html);
+            }
+        } catch (IOException | WebDriverException e) {
+            System.err.println("DOM snapshot skipped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Attach the per-action latency summary of the finished invocation to its Allure result.
+     */
+    private static void attachActionMetrics() {
+        Allure.addAttachment("Action latency", "application/json",
+                ActionMetrics.testSummaryJson(TestContext.getInvocationId()), "json");
+    }
+
+    /**
+     * Attach blocked-request count and page load time of the finished test, when request blocking is on.
+     */
+    private static void attachBlockingReport(ITestResult iTestResult) {
+        WebDriver driver = DriverInstance.getDriver();
+        if (!RequestBlocker.isEnabled() || driver == null) return;
+        Map<String, Object> report = RequestBlocker.report(driver);
+        AuditLog.info("[Request Blocking] " + getTestMethodName(iTestResult) + " " + report);
+        Allure.addAttachment("Request blocking", "application/json", new Json().toJson(report), "json");
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        // Resolve driver binaries once, then optionally launch the first wave of pooled browsers in parallel
+        Browser browser = Config.get().getBrowser();
+        try {
+            if (ExecutionMode.current() == ExecutionMode.LOCAL) {
+                DriverBinaries.resolve(browser);
+            }
+        } catch (RuntimeException e) {
+            // Not fatal here: createDriver retries and fails the affected tests with the same message
+            System.err.println("Driver binary resolution failed: " + e.getMessage());
+            return;
+        }
+        int warmUp = Config.get().getInt("driverPool.warmUp", 0);
+        if (DriverPool.isEnabled() && warmUp > 0) {
+            long start = System.nanoTime();
+            DriverPool.warmUp(browser, warmUp);
+            AuditLog.info("[Driver Pool] Warmed up " + warmUp + " " + browser + " sessions in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        // Idle pooled browsers (and the grid slots they hold) are quit now rather than at JVM exit,
+        // and sessions quit in the background must be gone before the suite reports done
+        DriverPool.shutdown();
+        AsyncTeardown.awaitPending(Config.get().getDuration("teardown.awaitTimeout", Duration.ofSeconds(60)));
+        LocalSite.stop();
+        LocalGrid.stop();
+
+        AllureEnvironment.record("Selenium.Version", new BuildInfo().getReleaseLabel());
+        AllureEnvironment.record("Java.Version", System.getProperty("java.version"));
+        AllureEnvironment.record("Execution", ExecutionMode.current().name());
+        AllureEnvironment.record("Threads", suite.getXmlSuite().getParallel().isParallel()
+                ? suite.getXmlSuite().getParallel() + " x " + suite.getXmlSuite().getThreadCount() : "1");
+        try {
+            AllureEnvironment.write();
+        } catch (IOException e) {
+            System.err.println("Failed to write Allure environment: " + e.getMessage());
+        }
+
+        // One file pair per JVM so parallel surefire forks do not overwrite each other
+        String dir = Config.get().getString("metrics.dir", "target/metrics");
+        String suffix = suite.getName().replaceAll("[^A-Za-z0-9._-]", "_") + "-" + ProcessHandle.current().pid();
+        try {
+            ActionMetrics.writeJson(Paths.get(dir, "action-latency-" + suffix + ".json"));
+            ActionMetrics.writePrometheus(Paths.get(dir, "action-latency-" + suffix + ".prom"));
+
+            Map<String, Object> savings = ScreenshotManager.savings();
+            AuditLog.info("[Screenshots] " + savings);
+            Files.writeString(Files.createDirectories(Paths.get(dir)).resolve("screenshots-" + suffix + ".json"), new Json().toJson(savings));
+
+            if (ExecutionMode.current() == ExecutionMode.GRID) {
+                Map<String, Object> grid = GridAllocator.report();
+                AuditLog.info("[Grid] " + grid);
+                Files.writeString(Paths.get(dir, "grid-" + suffix + ".json"), new Json().toJson(grid));
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write action metrics: " + e.getMessage());
+        }
+        try {
+            PerformanceBudgets.writeTrend();
+        } catch (IOException e) {
+            System.err.println("Failed to write performance trend: " + e.getMessage());
+        }
+    }
+
     @Override
     public void onStart(ITestContext iTestContext) {
-        System.out.println("[Suite Start] " + iTestContext.getName());
+        AuditLog.info("[Suite Start] " + iTestContext.getName());
+        // Load and validate the config snapshot before the first test needs it
+        Config.get();
     }
 
     @Override
     public void onFinish(ITestContext iTestContext) {
-        System.out.println("[Suite Finish] " + iTestContext.getName());
+        AuditLog.info("[Suite Finish] " + iTestContext.getName());
+        AuditLog.info("[Element Cache] " + ElementCache.summary());
+
+        // Per-locator wait durations, slowest first, for tuning timeouts
+        try {
+            Waits.writeReport(Paths.get(Config.get().getString("wait.reportFile", "target/wait-stats.csv")));
+        } catch (IOException e) {
+            System.err.println("Failed to write wait report: " + e.getMessage());
+        }
+    }
+
+    // Runs before the result is reported, so HARD budget violations can still fail a passing test
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult iTestResult) {
+        if (method.isTestMethod()) {
+            PerformanceBudgets.finishTest(iTestResult);
+        }
     }
 
     @Override
     public void onTestStart(ITestResult iTestResult) {
-        System.out.println("[Test Start] " + getTestMethodName(iTestResult));
+        AuditLog.info("[Test Start] " + getTestMethodName(iTestResult));
+        TestContext.start(iTestResult);
+        TestLogBuffer.clear();
+        ScreenshotManager.reset();
+        if (DriverInstance.getDriver() != null) {
+            RequestBlocker.resetCount(DriverInstance.getDriver());
+        }
     }
 
     @Override
     public void onTestSuccess(ITestResult iTestResult) {
-        System.out.println("[Test Success] " + getTestMethodName(iTestResult));
+        AuditLog.info("[Test Success] " + getTestMethodName(iTestResult));
+        ScreenshotManager.reset();
+        attachActionMetrics();
+        attachBlockingReport(iTestResult);
+        TestLogBuffer.clear();
+        TestContext.finish();
     }
 
     @Override
     public void onTestFailure(ITestResult iTestResult) {
-        System.out.println("[Test Failed] " + getTestMethodName(iTestResult));
+        AuditLog.info("[Test Failed] " + getTestMethodName(iTestResult));
+
+        // Frames buffered by the RING_BUFFER screenshot policy are only worth keeping for failures
+        ScreenshotManager.flushFailureFrames();
 
         WebDriver driver = DriverInstance.getDriver(); // Make sure DriverInstance uses ThreadLocal
         if (driver != null) {
             Allure.addAttachment("Failed Screenshot",
                     new ByteArrayInputStream(((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES)));
         } else {
-            System.out.println("WebDriver instance was null; screenshot skipped.");
+            AuditLog.info("WebDriver instance was null; screenshot skipped.");
         }
+        attachActionMetrics();
+        attachBlockingReport(iTestResult);
+        attachFailureLog(driver);
+        TestLogBuffer.clear();
+        TestContext.finish();
     }
 
     @Override
     public void onTestSkipped(ITestResult iTestResult) {
-        System.out.println("[Test Skipped] " + getTestMethodName(iTestResult));
+        AuditLog.info("[Test Skipped] " + getTestMethodName(iTestResult));
+        ScreenshotManager.reset();
+        TestLogBuffer.clear();
+        TestContext.finish();
     }
 
     @Override
     public void onTestFailedButWithinSuccessPercentage(ITestResult iTestResult) {
-        System.out.println("[Test Failed But Within Success Percentage] " + getTestMethodName(iTestResult));
+        AuditLog.info("[Test Failed But Within Success Percentage] " + getTestMethodName(iTestResult));
     }
 }
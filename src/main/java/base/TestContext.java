@@ -0,0 +1,46 @@
+package base;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.testng.ITestResult;
+
+/**
+ * Name of the test running on the current thread, set by TestAllureListener.
+ * Data-provider invocations share the name, so each invocation also gets an id of its own.
+ */
+public class TestContext {
+
+    private static final ThreadLocal<String> currentTest = new ThreadLocal<>();
+    private static final ThreadLocal<String> currentInvocation = new ThreadLocal<>();
+    private static final AtomicLong invocations = new AtomicLong();
+
+    public static void start(ITestResult iTestResult) {
+        String test = testName(iTestResult);
+        currentTest.set(test);
+        currentInvocation.set(test + "#" + invocations.incrementAndGet());
+    }
+
+    public static void finish() {
+        String test = currentTest.get();
+        String invocation = currentInvocation.get();
+        if (test != null && invocation != null) {
+            ActionMetrics.finishTest(test, invocation);
+        }
+        currentTest.remove();
+        currentInvocation.remove();
+    }
+
+    // Test name plus a run-wide sequence number, e.g. LoginTest.validLogin#12; null outside a test
+    public static String getInvocationId() {
+        return currentInvocation.get();
+    }
+
+    // Class simple name and method, e.g. LoginTest.validLogin; null outside a test
+    public static String getTestName() {
+        return currentTest.get();
+    }
+
+    public static String testName(ITestResult iTestResult) {
+        return iTestResult.getTestClass().getRealClass().getSimpleName() + "." + iTestResult.getMethod().getMethodName();
+    }
+}
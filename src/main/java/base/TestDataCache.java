@@ -0,0 +1,235 @@
+package base;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Two-level cache for sheets parsed by {@link DataGenerators#getTestData}.
+ * Level one is an in-JVM map keyed by (path, sheet, last-modified time, size).
+ * Level two is a compact binary snapshot on disk, named after the SHA-256 of the workbook,
+ * which other forks and later runs memory-map instead of parsing the workbook with POI.
+ * Editing the workbook changes its timestamp and checksum, so stale entries are never served.
+ */
+public class TestDataCache {
+
+    private static final int MAGIC = 0x41455444; // "AETD"
+    private static final int VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte NUMBER = 3;
+    private static final byte DATE = 4;
+
+    private record Key(Path path, String sheet, long modified, long size) {
+    }
+
+    private static final Map<Key, Object[][]> memory = new ConcurrentHashMap<>();
+    private static final Map<Key, Object> loadLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Parses the sheet when neither cache level has it.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        Object[][] load() throws IOException;
+    }
+
+    /**
+     * Returns the rows of the sheet from the fastest cache level that is still valid,
+     * falling back to {@code loader}. Each caller gets its own copy of the row arrays.
+     */
+    public static Object[][] get(String filePath, String sheetName, Loader loader) throws IOException {
+        Path path = Paths.get(filePath).toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        Key key = new Key(path, sheetName, attributes.lastModifiedTime().toMillis(), attributes.size());
+
+        Object[][] rows = memory.get(key);
+        if (rows == null) {
+            synchronized (loadLocks.computeIfAbsent(key, k -> new Object())) {
+                rows = memory.get(key);
+                if (rows == null) {
+                    rows = loadSnapshotOrParse(path, sheetName, loader);
+                    memory.keySet().removeIf(k -> k.path().equals(path) && k.sheet().equals(sheetName));
+                    memory.put(key, rows);
+                }
+            }
+            loadLocks.remove(key);
+        }
+        return copy(rows);
+    }
+
+    public static void clearMemory() {
+        memory.clear();
+    }
+
+    private static Object[][] loadSnapshotOrParse(Path path, String sheetName, Loader loader) throws IOException {
+        Path dir = Paths.get(Config.get().getString("testData.cacheDir", "target/testdata-cache"));
+        String prefix = sha256(path + "#" + sheetName).substring(0, 16) + "-";
+        Path snapshot = dir.resolve(prefix + checksum(path) + ".bin");
+
+        if (Files.isRegularFile(snapshot)) {
+            try {
+                return readSnapshot(snapshot);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Ignoring unreadable test data snapshot " + snapshot + ": " + e.getMessage());
+            }
+        }
+
+        Object[][] rows = loader.load();
+        try {
+            writeSnapshot(dir, snapshot, prefix, rows);
+        } catch (IOException e) {
+            System.err.println("Failed to write test data snapshot " + snapshot + ": " + e.getMessage());
+        }
+        return rows;
+    }
+
+    private static Object[][] readSnapshot(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Unknown snapshot format");
+            }
+            int rowCount = buffer.getInt();
+            int colCount = buffer.getInt();
+            Object[][] rows = new Object[rowCount][colCount];
+            for (int i = 0; i < rowCount; i++) {
+                for (int j = 0; j < colCount; j++) {
+                    rows[i][j] = readValue(buffer);
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static Object readValue(ByteBuffer buffer) throws IOException {
+        byte tag = buffer.get();
+        return switch (tag) {
+            case NULL -> null;
+            case STRING -> {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                yield new String(bytes, StandardCharsets.UTF_8);
+            }
+            case BOOLEAN -> buffer.get() != 0;
+            case NUMBER -> buffer.getDouble();
+            case DATE -> new Date(buffer.getLong());
+            default -> throw new IOException("Unknown cell tag " + tag);
+        };
+    }
+
+    // Written to a temp file and moved into place so concurrent forks never read a partial snapshot
+    private static void writeSnapshot(Path dir, Path snapshot, String prefix, Object[][] rows) throws IOException {
+        Files.createDirectories(dir);
+        int colCount = rows.length == 0 ? 0 : rows[0].length;
+
+        List<byte[]> strings = new ArrayList<>();
+        int size = 16;
+        for (Object[] row : rows) {
+            for (int j = 0; j < colCount; j++) {
+                Object value = row != null && j < row.length ? row[j] : null;
+                size += 1;
+                if (value instanceof String text) {
+                    byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+                    strings.add(bytes);
+                    size += 4 + bytes.length;
+                } else if (value instanceof Boolean) {
+                    size += 1;
+                } else if (value instanceof Double || value instanceof Date) {
+                    size += 8;
+                }
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(rows.length).putInt(colCount);
+        int stringIndex = 0;
+        for (Object[] row : rows) {
+            for (int j = 0; j < colCount; j++) {
+                Object value = row != null && j < row.length ? row[j] : null;
+                if (value instanceof String) {
+                    byte[] bytes = strings.get(stringIndex++);
+                    buffer.put(STRING).putInt(bytes.length).put(bytes);
+                } else if (value instanceof Boolean flag) {
+                    buffer.put(BOOLEAN).put((byte) (flag ? 1 : 0));
+                } else if (value instanceof Double number) {
+                    buffer.put(NUMBER).putDouble(number);
+                } else if (value instanceof Date date) {
+                    buffer.put(DATE).putLong(date.getTime());
+                } else {
+                    buffer.put(NULL);
+                }
+            }
+        }
+        buffer.flip();
+
+        Path temp = Files.createTempFile(dir, prefix, ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // Snapshots of older versions of the same workbook sheet are no longer reachable
+        try (DirectoryStream<Path> stale = Files.newDirectoryStream(dir, prefix + "*.bin")) {
+            for (Path old : stale) {
+                if (!old.equals(snapshot)) {
+                    Files.deleteIfExists(old);
+                }
+            }
+        }
+    }
+
+    private static Object[][] copy(Object[][] rows) {
+        Object[][] copy = new Object[rows.length][];
+        for (int i = 0; i < rows.length; i++) {
+            copy[i] = rows[i] == null ? null : rows[i].clone();
+        }
+        return copy;
+    }
+
+    static String checksum(Path path) throws IOException {
+        MessageDigest digest = sha256Digest();
+        byte[] chunk = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                digest.update(chunk, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String sha256(String value) {
+        return HexFormat.of().formatHex(sha256Digest().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package base;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-test durations from previous runs, in milliseconds, keyed by qualified method name.
+ * History is smoothed (half old, half new) so one slow run does not reorder the whole suite.
+ * Keep the file in a CI cache (it is not under version control) so every shard computes the same split.
+ */
+public class TestDurations {
+
+    private final Path file;
+    private final Map<String, Long> history = new ConcurrentHashMap<>();
+    private final Map<String, Long> current = new ConcurrentHashMap<>();
+
+    public TestDurations(Path file) {
+        this.file = file;
+        if (Files.exists(file)) {
+            history.putAll(read(file));
+        }
+    }
+
+    /**
+     * Expected duration from history; tests without history get the mean of the known ones,
+     * or {@code fallbackMillis} on the very first run.
+     */
+    public long predict(String test, long fallbackMillis) {
+        Long known = history.get(test);
+        if (known != null) return known;
+        return (long) history.values().stream().mapToLong(Long::longValue).average().orElse(fallbackMillis);
+    }
+
+    // Data-provider invocations of the same method add up, since the method is the unit scheduled
+    public void record(String test, long millis) {
+        current.merge(test, millis, Long::sum);
+    }
+
+    public Map<String, Long> getCurrent() {
+        return Map.copyOf(current);
+    }
+
+    /**
+     * Merges this run into the file. Parallel forks and shards on the same machine
+     * serialize on a lock file and re-read before writing so no results are lost.
+     */
+    public void save() throws IOException {
+        if (current.isEmpty()) return;
+        LockedFiles.updateProperties(file, "Test durations in milliseconds, written by DurationScheduler", stored -> {
+            Map<String, Long> merged = new TreeMap<>(parse(stored));
+            current.forEach((test, millis) -> merged.merge(test, millis, (old, now) -> (old + now) / 2));
+            Map<String, String> entries = new TreeMap<>();
+            merged.forEach((test, millis) -> entries.put(test, String.valueOf(millis)));
+            return entries;
+        });
+    }
+
+    private static Map<String, Long> read(Path file) {
+        return parse(LockedFiles.readProperties(file));
+    }
+
+    private static Map<String, Long> parse(Map<String, String> properties) {
+        Map<String, Long> durations = new TreeMap<>();
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            try {
+                durations.put(entry.getKey(), Long.parseLong(entry.getValue().trim()));
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring bad duration for " + entry.getKey() + ": " + entry.getValue());
+            }
+        }
+        return durations;
+    }
+}
@@ -0,0 +1,300 @@
+package base;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import org.testng.IDataProviderListener;
+import org.testng.IDataProviderMethod;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+/**
+ * Change-aware test selection. While a test runs, everything it depends on is recorded: Excel sheets
+ * read through DataGenerators, config keys read through Config, its own test class and the whole
+ * base and pages packages. Config keys a class caches in static fields are read once and never again,
+ * so the keys each feature registers through Config.addValidator count as dependencies of every test.
+ * Methods whose invocations all passed are stored in testImpact.file with a fingerprint of those
+ * dependencies; on the next run a method whose fingerprint is unchanged is left out of the suite.
+ * testImpact.forceFull=true runs everything (and refreshes the fingerprints).
+ * Register it before DurationScheduler so sharding balances only the methods that still run,
+ * and share the file between shards the same way as schedule.durationsFile.
+ */
+public class TestImpact implements IMethodInterceptor, IDataProviderListener, ITestListener, ISuiteListener {
+
+    private static final String BASE_PACKAGE = "package:base";
+    private static final String PAGES_PACKAGE = "package:pages";
+
+    private static volatile boolean tracking;
+    private static final ThreadLocal<Set<String>> threadDependencies = ThreadLocal.withInitial(HashSet::new);
+    private static final Set<String> initializerDependencies = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<Boolean> inInitializer = ThreadLocal.withInitial(() -> false);
+    private static final AtomicInteger initializing = new AtomicInteger();
+
+    private static final class MethodRecord {
+        private final Set<String> dependencies = ConcurrentHashMap.newKeySet();
+        private volatile boolean green = true;
+    }
+
+    private final Path file;
+    private final boolean enabled;
+    private final boolean forceFull;
+    private final Map<String, MethodRecord> current = new ConcurrentHashMap<>();
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    public TestImpact() {
+        Config config = Config.get();
+        file = Paths.get(config.getString("testImpact.file", "test-impact.properties"));
+        enabled = config.getBoolean("testImpact.enabled", false);
+        forceFull = config.getBoolean("testImpact.forceFull", false);
+        tracking = enabled;
+    }
+
+    /**
+     * Records a dependency of the test running on this thread, e.g. config:browserName or class:pages.Login.
+     * A no-op when no TestImpact listener is active.
+     */
+    public static void read(String dependency) {
+        if (tracking) {
+            threadDependencies.get().add(dependency);
+        }
+        if (initializing.get() > 0 && inInitializer.get()) {
+            initializerDependencies.add(dependency);
+        }
+    }
+
+    /**
+     * Runs reads that belong to every test, like the ones a class makes once to fill its static fields.
+     * Recorded whether or not the listener is active yet, since classes may load before it.
+     */
+    static void initializer(Runnable reads) {
+        initializing.incrementAndGet();
+        inInitializer.set(true);
+        try {
+            reads.run();
+        } finally {
+            inInitializer.set(false);
+            initializing.decrementAndGet();
+        }
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!enabled || forceFull || !Files.exists(file)) return methods;
+
+        Map<String, String> previous = LockedFiles.readProperties(file);
+        List<IMethodInstance> selected = new ArrayList<>();
+        int unchanged = 0;
+        for (IMethodInstance method : methods) {
+            String test = method.getMethod().getQualifiedName();
+            String stored = previous.get(test);
+            if (stored != null && unchanged(stored)) {
+                unchanged++;
+                AuditLog.write("[Test Impact] Skipping unchanged green test " + test);
+            } else {
+                selected.add(method);
+            }
+        }
+        AuditLog.info(String.format("[Test Impact] %s: running %d of %d methods, %d unchanged since their last green run",
+                context.getName(), selected.size(), methods.size(), unchanged));
+        return selected;
+    }
+
+    // Stored as <fingerprint>|<dependency>|<dependency>...
+    private boolean unchanged(String stored) {
+        String[] parts = stored.split("\\|");
+        List<String> dependencies = List.of(parts).subList(1, parts.length);
+        return parts[0].equals(fingerprint(dependencies));
+    }
+
+    // Sheets read by a data provider belong to every invocation of its method
+    @Override
+    public void afterDataProviderExecution(IDataProviderMethod dataProvider, ITestNGMethod method, ITestContext context) {
+        Set<String> read = threadDependencies.get();
+        if (!enabled || read.isEmpty()) return;
+        record(method).dependencies.addAll(read);
+        read.clear();
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        finish(result, true);
+    }
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        finish(result, false);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        finish(result, false);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        finish(result, false);
+    }
+
+    // Reads since the previous test on this thread, which includes the @BeforeMethod setup
+    private void finish(ITestResult result, boolean passed) {
+        if (!enabled) return;
+        MethodRecord record = record(result.getMethod());
+        Set<String> read = threadDependencies.get();
+        record.dependencies.addAll(read);
+        read.clear();
+        for (Class<?> type = result.getTestClass().getRealClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            record.dependencies.add("class:" + type.getName());
+        }
+        record.dependencies.add(BASE_PACKAGE);
+        record.dependencies.add(PAGES_PACKAGE);
+        record.dependencies.addAll(initializerDependencies);
+        if (!passed) {
+            record.green = false;
+        }
+    }
+
+    private MethodRecord record(ITestNGMethod method) {
+        return current.computeIfAbsent(method.getQualifiedName(), k -> new MethodRecord());
+    }
+
+    /**
+     * Merges this run into the file: green methods get a fresh fingerprint, anything that failed or
+     * was skipped is removed so it runs again. Methods left out by selection keep their entries.
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!enabled || current.isEmpty()) return;
+        try {
+            save();
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Failed to write test impact file: " + e.getMessage());
+        }
+    }
+
+    private void save() throws IOException {
+        LockedFiles.updateProperties(file, "Dependency fingerprints of green tests, written by TestImpact", stored -> {
+            Map<String, String> merged = new TreeMap<>(stored);
+            current.forEach((test, record) -> {
+                if (record.green) {
+                    Set<String> dependencies = new TreeSet<>(record.dependencies);
+                    merged.put(test, fingerprint(dependencies) + "|" + String.join("|", dependencies));
+                } else {
+                    merged.remove(test);
+                }
+            });
+            return merged;
+        });
+    }
+
+    private String fingerprint(Collection<String> dependencies) {
+        MessageDigest digest = sha256();
+        for (String dependency : new TreeSet<>(dependencies)) {
+            digest.update((dependency + "=" + fingerprintOf(dependency) + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Config values are cheap to read and may be reloaded; files and classes are hashed once per JVM
+    private String fingerprintOf(String dependency) {
+        int colon = dependency.indexOf(':');
+        String kind = dependency.substring(0, colon);
+        String name = dependency.substring(colon + 1);
+        if (kind.equals("config")) {
+            String value = Config.get().getString(name);
+            return value == null ? "" : value;
+        }
+        return fingerprints.computeIfAbsent(dependency, k -> {
+            try {
+                return switch (kind) {
+                    case "class" -> classFingerprint(name);
+                    case "package" -> packageFingerprint(name);
+                    case "sheet" -> sheetFingerprint(name);
+                    default -> "unknown";
+                };
+            } catch (IOException | URISyntaxException e) {
+                // Unreadable means unknown, which never matches a stored fingerprint
+                return "unreadable:" + System.nanoTime();
+            }
+        });
+    }
+
+    private static String classFingerprint(String className) throws IOException {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        try (InputStream in = loader.getResourceAsStream(className.replace('.', '/') + ".class")) {
+            return in == null ? "missing" : HexFormat.of().formatHex(sha256().digest(in.readAllBytes()));
+        }
+    }
+
+    // Every class file of a package that ships with this class, from target/classes or a jar
+    private static String packageFingerprint(String packageName) throws IOException, URISyntaxException {
+        Path root = Paths.get(TestImpact.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        String prefix = packageName.replace('.', '/') + "/";
+        MessageDigest digest = sha256();
+        if (Files.isDirectory(root)) {
+            if (!Files.isDirectory(root.resolve(prefix))) return "missing";
+            try (Stream<Path> files = Files.list(root.resolve(prefix))) {
+                for (Path classFile : files.filter(path -> path.toString().endsWith(".class")).sorted().toList()) {
+                    digest.update(classFile.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(classFile));
+                }
+            }
+        } else {
+            try (JarFile jar = new JarFile(root.toFile())) {
+                List<JarEntry> entries = jar.stream()
+                        .filter(entry -> entry.getName().startsWith(prefix) && entry.getName().endsWith(".class")
+                                && entry.getName().indexOf('/', prefix.length()) < 0)
+                        .sorted((a, b) -> a.getName().compareTo(b.getName()))
+                        .toList();
+                for (JarEntry entry : entries) {
+                    digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+                    try (InputStream in = jar.getInputStream(entry)) {
+                        digest.update(in.readAllBytes());
+                    }
+                }
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // The whole workbook: editing any sheet of it re-runs the tests that read one of its sheets
+    private static String sheetFingerprint(String fileAndSheet) throws IOException {
+        Path workbook = Paths.get(fileAndSheet.substring(0, fileAndSheet.lastIndexOf('#')));
+        return Files.exists(workbook) ? TestDataCache.checksum(workbook) : "missing";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package base;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Bounded per-thread ring of the current test's log lines (audit messages, steps, BaseClass actions).
+ * Slots are preallocated and overwritten in place; action lines keep their raw parts and are only
+ * formatted when the buffer is dumped, which TestAllureListener does for failed tests only.
+ */
+public class TestLogBuffer {
+
+    static {
+        Config.addValidator(config -> {
+            config.getInt("testLog.ringSize", 0);
+            config.getBoolean("testLog.domSnapshot", false);
+            config.getBoolean("testLog.compressDom", true);
+        });
+    }
+
+    private static final int CAPACITY = Math.max(0, Config.get().getInt("testLog.ringSize", 200));
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneOffset.UTC);
+
+    private static final class Slot {
+        private long millis;
+        private String message;
+        private String action;
+        private Object locator;
+        private long elapsedNanos;
+    }
+
+    private static final class Ring {
+        private final Slot[] slots = new Slot[CAPACITY];
+        private long total;
+
+        private Ring() {
+            for (int i = 0; i < CAPACITY; i++) slots[i] = new Slot();
+        }
+
+        private Slot next() {
+            Slot slot = slots[(int) (total++ % CAPACITY)];
+            slot.millis = System.currentTimeMillis();
+            return slot;
+        }
+    }
+
+    private static final ThreadLocal<Ring> ring = ThreadLocal.withInitial(Ring::new);
+
+    public static void add(String message) {
+        if (CAPACITY == 0) return;
+        Slot slot = ring.get().next();
+        slot.message = message;
+        slot.action = null;
+        slot.locator = null;
+    }
+
+    static void action(String action, Object locator, long elapsedNanos) {
+        if (CAPACITY == 0) return;
+        Slot slot = ring.get().next();
+        slot.message = null;
+        slot.action = action;
+        slot.locator = locator;
+        slot.elapsedNanos = elapsedNanos;
+    }
+
+    // Start of every test; also drops the lines of a passing test
+    public static void clear() {
+        if (CAPACITY == 0) return;
+        Ring current = ring.get();
+        for (Slot slot : current.slots) {
+            slot.message = null;
+            slot.action = null;
+            slot.locator = null;
+        }
+        current.total = 0;
+    }
+
+    /**
+     * Lines of the current test, oldest first.
+     */
+    public static String dump() {
+        if (CAPACITY == 0) return "";
+        Ring current = ring.get();
+        StringBuilder out = new StringBuilder();
+        long first = Math.max(0, current.total - CAPACITY);
+        if (first > 0) {
+            out.append("... ").append(first).append(" earlier lines dropped").append(System.lineSeparator());
+        }
+        for (long i = first; i < current.total; i++) {
+            Slot slot = current.slots[(int) (i % CAPACITY)];
+            TIME.formatTo(Instant.ofEpochMilli(slot.millis), out);
+            out.append(' ');
+            if (slot.action != null) {
+                out.append(slot.action);
+                if (slot.locator != null) out.append(' ').append(slot.locator);
+                out.append(String.format(Locale.ROOT, " (%.1f ms)", slot.elapsedNanos / 1_000_000.0));
+            } else {
+                out.append(slot.message);
+            }
+            out.append(System.lineSeparator());
+        }
+        return out.toString();
+    }
+}
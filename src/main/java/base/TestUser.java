@@ -0,0 +1,10 @@
+package base;
+
+/**
+ * Signup data for one generated account; the email is unique across threads, forks and runs.
+ *
+ * @param title  "Mr" or "Mrs", as accepted by Login.chooseTitle.
+ * @param dobDay Day of birth, as accepted by Login.chooseDaysDOB.
+ */
+public record TestUser(String name, String email, String password, String title, String dobDay) {
+}
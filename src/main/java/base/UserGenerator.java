@@ -0,0 +1,107 @@
+package base;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.DataProvider;
+
+import com.github.javafaker.Faker;
+
+/**
+ * Generates signup users that never collide, without any shared lock on the hot path.
+ * Uniqueness comes from the email local part: run id . fork id . thread slot . per-thread counter,
+ * where the run id is the JVM start time, the fork id is shard.index plus the surefire fork number
+ * (or PID), and each generating thread owns a slot and its own counter.
+ * Each thread has its own Faker seeded from testData.seed and its slot, so a fixed seed
+ * reproduces the same names and passwords per thread (0 picks a random seed per run).
+ */
+public class UserGenerator {
+
+    static {
+        Config.addValidator(config -> {
+            config.getLong("testData.seed", 0);
+            config.getInt("testData.userBatchSize", 1);
+            config.getInt("shard.index", 0);
+            config.getString("testData.emailDomain");
+        });
+    }
+
+    private static final String RUN_ID = Long.toString(ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli).orElse(System.currentTimeMillis()), 36);
+    private static final String FORK_ID = Config.get().getInt("shard.index", 0) + "f"
+            + System.getProperty("surefire.forkNumber", Long.toString(ProcessHandle.current().pid()));
+    private static final long SEED = seed();
+    private static final String DOMAIN = Config.get().getString("testData.emailDomain", "example.test");
+
+    private static final AtomicInteger slots = new AtomicInteger();
+    private static final ConcurrentLinkedQueue<TestUser> pregenerated = new ConcurrentLinkedQueue<>();
+
+    private static final class ThreadGenerator {
+        private final int slot = slots.getAndIncrement();
+        private final Faker faker = new Faker(Locale.ENGLISH, new Random(SEED * 31 + slot));
+        private long counter;
+
+        private TestUser next() {
+            String first = faker.name().firstName();
+            String last = faker.name().lastName();
+            String local = (first + "." + last).toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9.]", "");
+            String email = local + "." + RUN_ID + "." + FORK_ID + "." + slot + "." + (counter++) + "@" + DOMAIN;
+            String password = faker.internet().password(10, 16, true, true, true);
+            String title = faker.bool().bool() ? "Mr" : "Mrs";
+            String dobDay = String.valueOf(1 + faker.random().nextInt(28));
+            return new TestUser(first + " " + last, email, password, title, dobDay);
+        }
+    }
+
+    private static final ThreadLocal<ThreadGenerator> generator = ThreadLocal.withInitial(ThreadGenerator::new);
+
+    /**
+     * Next unique user: from the pre-generated batch if one is left, otherwise generated on this thread.
+     */
+    public static TestUser next() {
+        TestUser user = pregenerated.poll();
+        return user != null ? user : generator.get().next();
+    }
+
+    /**
+     * Generates {@code count} users up front so tests only dequeue them.
+     */
+    public static void preGenerate(int count) {
+        ThreadGenerator current = generator.get();
+        for (int i = 0; i < count; i++) {
+            pregenerated.offer(current.next());
+        }
+    }
+
+    // Generated on the calling thread, e.g. once per data provider call
+    public static TestUser[] batch(int count) {
+        ThreadGenerator current = generator.get();
+        TestUser[] users = new TestUser[count];
+        for (int i = 0; i < count; i++) {
+            users[i] = current.next();
+        }
+        return users;
+    }
+
+    /**
+     * One unique TestUser per row; the batch is generated before any test method runs.
+     * Size comes from testData.userBatchSize.
+     */
+    @DataProvider(name = "uniqueUsers", parallel = true)
+    public static Object[][] uniqueUsers() {
+        TestUser[] users = batch(Math.max(1, Config.get().getInt("testData.userBatchSize", 10)));
+        Object[][] data = new Object[users.length][];
+        for (int i = 0; i < users.length; i++) {
+            data[i] = new Object[]{users[i]};
+        }
+        return data;
+    }
+
+    private static long seed() {
+        long configured = Config.get().getLong("testData.seed", 0);
+        return configured != 0 ? configured : new Random().nextLong();
+    }
+}
@@ -1,10 +1,8 @@
 package base;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
-import java.util.Properties;
+import java.io.UncheckedIOException;
 
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
@@ -15,13 +13,12 @@ public class Utility {
 
     public static final String envConfig_Property_File_Path = "PropertyFiles/envConfig.properties";
 
-    // Fetch a value from env config properties file
+    // Fetch a value from the cached env config snapshot (see Config for overrides and typed getters)
     public static String fetchConfigPropertyValue(String key) throws IOException {
-        try (InputStream is = Utility.class.getClassLoader().getResourceAsStream(envConfig_Property_File_Path)) {
-            if (is == null) throw new IOException("envConfig.properties not found.");
-            Properties property = new Properties();
-            property.load(is);
-            return property.getProperty(key);
+        try {
+            return Config.get().getString(key);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
     }
 
@@ -44,16 +41,10 @@ public class Utility {
         return !isNotEmpty(value);
     }
 
-    // Append a line to a log file
+    // Append a line to the audit log (Report/AuditTrax.log); queued and written in the background by AuditLog.
+    // Returns false when the background writer has stopped
     public static boolean WriteLog(String content) {
-        String filePath = System.getProperty("user.dir") + "/Report/AuditTrax.log";
-        try (FileWriter writer = new FileWriter(filePath, true)) {
-            writer.write(content + System.lineSeparator());
-            return true;
-        } catch (IOException ex) {
-            System.err.println("Failed to write to log: " + ex.getMessage());
-            return false;
-        }
+        return AuditLog.write(content);
     }
 
     // Convert String to Integer with error handling
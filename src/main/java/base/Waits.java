@@ -0,0 +1,161 @@
+package base;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Single explicit-wait engine for the framework.
+ * Polls fast at first and backs off (e.g. 25 ms rising to 250 ms) so conditions that are already
+ * true return almost immediately, and records how long every wait took per label (usually the locator).
+ * Sessions run with a zero implicit wait (wait.implicit), so explicit timeouts are never stretched by it.
+ */
+public class Waits {
+
+    static {
+        Config.addValidator(config -> {
+            config.getDuration("wait.implicit", Duration.ZERO);
+            config.getDuration("wait.initialPoll", Duration.ZERO);
+            config.getDuration("wait.maxPoll", Duration.ZERO);
+            config.getDouble("wait.backoffMultiplier", 1.0);
+        });
+    }
+
+    private static final long INITIAL_POLL_NANOS;
+    private static final long MAX_POLL_NANOS;
+    private static final double BACKOFF_MULTIPLIER;
+
+    static {
+        Config config = Config.get();
+        INITIAL_POLL_NANOS = config.getDuration("wait.initialPoll", Duration.ofMillis(25)).toNanos();
+        MAX_POLL_NANOS = Math.max(INITIAL_POLL_NANOS, config.getDuration("wait.maxPoll", Duration.ofMillis(250)).toNanos());
+        BACKOFF_MULTIPLIER = Math.max(1.0, config.getDouble("wait.backoffMultiplier", 2.0));
+    }
+
+    /**
+     * Observed wait durations for one label.
+     */
+    public static final class WaitStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAccumulator maxTimeoutNanos = new LongAccumulator(Math::max, 0);
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        public long getAverageMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / n);
+        }
+
+        public long getMaxMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        }
+
+        // Largest timeout configured for this label, to compare against what was actually needed
+        public long getMaxTimeoutMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxTimeoutNanos.get());
+        }
+    }
+
+    private static final Map<String, WaitStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Waits until the condition returns a non-null value other than {@code false}.
+     * NotFoundException and StaleElementReferenceException thrown by the condition count as "not yet".
+     *
+     * @throws TimeoutException If the condition is not met within {@code timeout}.
+     */
+    public static <T> T until(Function<WebDriver, T> condition, Duration timeout, String label) {
+        WebDriver driver = DriverInstance.getDriver();
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long poll = INITIAL_POLL_NANOS;
+        RuntimeException lastError = null;
+
+        while (true) {
+            try {
+                T value = condition.apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    record(label, System.nanoTime() - start, timeout, false);
+                    return value;
+                }
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                lastError = e;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                record(label, System.nanoTime() - start, timeout, true);
+                throw new TimeoutException(String.format("Expected condition failed: waiting for %s (tried for %d ms with %d ms..%d ms backoff polling)",
+                        condition, timeout.toMillis(), TimeUnit.NANOSECONDS.toMillis(INITIAL_POLL_NANOS),
+                        TimeUnit.NANOSECONDS.toMillis(MAX_POLL_NANOS)), lastError);
+            }
+
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.min(poll, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("Interrupted while waiting for " + label, e);
+            }
+            poll = Math.min(MAX_POLL_NANOS, (long) (poll * BACKOFF_MULTIPLIER));
+        }
+    }
+
+    public static Map<String, WaitStats> getStats() {
+        return Map.copyOf(stats);
+    }
+
+    /**
+     * Writes one CSV line per label, slowest first: label, waits, timeouts, avg ms, max ms, max timeout ms.
+     */
+    public static void writeReport(Path file) throws IOException {
+        List<Map.Entry<String, WaitStats>> entries = new ArrayList<>(stats.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, WaitStats> e) -> e.getValue().getMaxMillis()).reversed());
+
+        List<String> lines = new ArrayList<>();
+        lines.add("label,waits,timeouts,avg_ms,max_ms,max_timeout_ms");
+        for (Map.Entry<String, WaitStats> entry : entries) {
+            WaitStats s = entry.getValue();
+            lines.add(String.format("\"%s\",%d,%d,%d,%d,%d", entry.getKey().replace("\"", "\"\""),
+                    s.getCount(), s.getTimeouts(), s.getAverageMillis(), s.getMaxMillis(), s.getMaxTimeoutMillis()));
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, lines);
+    }
+
+    private static void record(String label, long elapsedNanos, Duration timeout, boolean timedOut) {
+        WaitStats s = stats.computeIfAbsent(label, k -> new WaitStats());
+        s.count.increment();
+        s.totalNanos.add(elapsedNanos);
+        s.maxNanos.accumulate(elapsedNanos);
+        s.maxTimeoutNanos.accumulate(timeout.toNanos());
+        if (timedOut) {
+            s.timeouts.increment();
+        }
+    }
+}
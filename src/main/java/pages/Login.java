@@ -1,23 +1,29 @@
 package pages;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import base.AuditLog;
 import base.BaseClass;
+import base.TestUser;
 import io.qameta.allure.Step;
 
 public class Login {
     WebDriver driver;
     public Login (WebDriver driver) {
         this.driver = driver;
+        BaseClass.useElementCache(Login.class);
+        BaseClass.usePerformanceBudget(Login.class);
     }
 
     @Step("Wait for page full load")
     public Login waitForPageLoad()
         throws IOException {
-        BaseClass.waitForPageLoad();
+        BaseClass.waitForPageLoad(Login.class);
         BaseClass.captureScreenshot();
-        System.out.println("Page alread full load");
+        AuditLog.info("Page alread full load");
         return this;
     }
 
@@ -27,7 +33,7 @@ public class Login {
         throws IOException {
         BaseClass.click(LoginTab_xpath);
         BaseClass.captureScreenshot();
-        System.out.println("User click Login / Sign up tab");
+        AuditLog.info("User click Login / Sign up tab");
         return this;
     }
 
@@ -37,7 +43,7 @@ public class Login {
         throws IOException {
         BaseClass.enterText(loginEmailField_xpath, emailAddress);
         BaseClass.captureScreenshot();
-        System.out.println("User input email address for login");
+        AuditLog.info("User input email address for login");
         return this;
     }
 
@@ -47,7 +53,7 @@ public class Login {
         throws IOException {
         BaseClass.enterText(loginPasswordField_xpath, PasswordLogin);
         BaseClass.captureScreenshot();
-        System.out.println("User input password for login");
+        AuditLog.info("User input password for login");
         return this;
     }
 
@@ -57,7 +63,7 @@ public class Login {
         throws IOException {
         BaseClass.click(loginButton_xpath);
         BaseClass.captureScreenshot();
-        System.out.println("User click login button");
+        AuditLog.info("User click login button");
         return this;
     }
 
@@ -67,7 +73,7 @@ public class Login {
         throws IOException {
         BaseClass.enterText(signupNameField_xpath, nameSignUp);
         BaseClass.captureScreenshot();
-        System.out.println("User input name for Sign Up");
+        AuditLog.info("User input name for Sign Up");
         return this;
     }
 
@@ -77,7 +83,7 @@ public class Login {
         throws IOException {
         BaseClass.enterText(signupEmailField_xpath, emailSignUp);
         BaseClass.captureScreenshot();
-        System.out.println("User input email address for Sign Up");
+        AuditLog.info("User input email address for Sign Up");
         return this;
     }
 
@@ -89,16 +95,16 @@ public class Login {
         switch (titleUser.toLowerCase()) {
             case "mr" : {
                 BaseClass.click(signUp_Gender1_radioBtn_id);
-                System.out.println("User choose Mr. as a title");
+                AuditLog.info("User choose Mr. as a title");
                 break;
             }
             case "mrs" : {
                 BaseClass.click(signUp_Gender2_radioBtn_id);
-                System.out.println("User choose Mrs. as a title");
+                AuditLog.info("User choose Mrs. as a title");
                 break;
             }
             default : {
-                System.out.println("Title option are not available");
+                AuditLog.info("Title option are not available");
                 break;
             }
         }
@@ -126,4 +132,44 @@ public class Login {
         return this;
     }
 
+    @Step("Fill Sign Up form")
+    public Login fillSignupForm(String nameSignUp, String emailSignUp)
+        throws IOException {
+        Map<By, String> fields = new LinkedHashMap<>();
+        fields.put(signupNameField_xpath, nameSignUp);
+        fields.put(signupEmailField_xpath, emailSignUp);
+        BaseClass.fillForm(fields);
+        BaseClass.captureScreenshot();
+        AuditLog.info("User fill name and email address for Sign Up");
+        return this;
+    }
+
+    // Signup form for a generated user, see base.UserGenerator
+    public Login fillSignupForm(TestUser user)
+        throws IOException {
+        return fillSignupForm(user.name(), user.email());
+    }
+
+    @Step("Fill account information")
+    public Login fillAccountInformation(String titleUser, String passwordSignUp, String daysDOB)
+        throws IOException {
+        Map<By, String> fields = new LinkedHashMap<>();
+        switch (titleUser.toLowerCase()) {
+            case "mr" -> fields.put(signUp_Gender1_radioBtn_id, "true");
+            case "mrs" -> fields.put(signUp_Gender2_radioBtn_id, "true");
+            default -> AuditLog.info("Title option are not available");
+        }
+        fields.put(signUpPasswordField_id, passwordSignUp);
+        fields.put(signupDaysOption_id, daysDOB);
+        BaseClass.fillForm(fields);
+        BaseClass.captureScreenshot();
+        AuditLog.info("User fill account information");
+        return this;
+    }
+
+    public Login fillAccountInformation(TestUser user)
+        throws IOException {
+        return fillAccountInformation(user.title(), user.password(), user.dobDay());
+    }
+
 }